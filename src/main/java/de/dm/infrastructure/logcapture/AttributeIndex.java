@@ -0,0 +1,128 @@
+package de.dm.infrastructure.logcapture;
+
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * positions of captured events by logger name, MDC entries, marker names and key-value keys, so that expectations with
+ * these matchers only look at events that can match.
+ * <p>
+ * Like {@link LevelIndex}, each query indexes the events that have been captured since the previous one. Regexes for logger
+ * names and MDC values are matched against each distinct name or value once instead of against each event.
+ */
+final class AttributeIndex {
+    private final List<LoggedEvent> loggedEvents;
+    private final Map<String, PositionList> positionsByLoggerName = new HashMap<>();
+    private final Map<String, PositionList> positionsByMdcKey = new HashMap<>();
+    private final Map<String, Map<String, PositionList>> positionsByMdcValue = new HashMap<>();
+    private final Map<String, PositionList> positionsByMarkerName = new HashMap<>();
+    private final Map<String, PositionList> positionsByKeyValueKey = new HashMap<>();
+    private int numberOfIndexedEvents = 0;
+
+    AttributeIndex(List<LoggedEvent> loggedEvents) {
+        this.loggedEvents = loggedEvents;
+    }
+
+    /*
+     * returns the positions of events that the matcher may match, or null if the index does not know about this matcher
+     */
+    EventPositions candidatePositions(LogEventMatcher matcher) {
+        if (matcher instanceof ExpectedLoggerName expectedLoggerName) {
+            return loggerNamePositions(expectedLoggerName.expectedName);
+        }
+        if (matcher instanceof ExpectedMdcEntry expectedMdcEntry) {
+            return expectedMdcEntry.getValuePattern()
+                    .map(valuePattern -> mdcValuePositions(expectedMdcEntry.key, valuePattern))
+                    .orElseGet(() -> mdcKeyPositions(expectedMdcEntry.key));
+        }
+        if (matcher instanceof ExpectedMarker expectedMarker) {
+            return markerPositions(expectedMarker.expectedName);
+        }
+        if (matcher instanceof ExpectedKeyValue expectedKeyValue) {
+            return keyValuePositions(expectedKeyValue.key);
+        }
+        return null;
+    }
+
+    private synchronized EventPositions loggerNamePositions(TextPattern loggerNamePattern) {
+        indexNewEvents();
+        return union(positionsByLoggerName, loggerNamePattern);
+    }
+
+    private synchronized EventPositions mdcKeyPositions(String key) {
+        indexNewEvents();
+        return positionsOf(positionsByMdcKey.get(key));
+    }
+
+    private synchronized EventPositions mdcValuePositions(String key, TextPattern valuePattern) {
+        indexNewEvents();
+        return union(positionsByMdcValue.getOrDefault(key, Map.of()), valuePattern);
+    }
+
+    private synchronized EventPositions markerPositions(String markerName) {
+        indexNewEvents();
+        return positionsOf(positionsByMarkerName.get(markerName));
+    }
+
+    private synchronized EventPositions keyValuePositions(String key) {
+        indexNewEvents();
+        return positionsOf(positionsByKeyValueKey.get(key));
+    }
+
+    private void indexNewEvents() {
+        int numberOfEvents = loggedEvents.size();
+        for (int position = numberOfIndexedEvents; position < numberOfEvents; position++) {
+            index(loggedEvents.get(position), position);
+        }
+        numberOfIndexedEvents = numberOfEvents;
+    }
+
+    private void index(LoggedEvent event, int position) {
+        if (event.getLoggerName() != null) {
+            add(positionsByLoggerName, event.getLoggerName(), position);
+        }
+        if (event.getMdcData() != null) {
+            event.getMdcData().forEach((key, value) -> {
+                add(positionsByMdcKey, key, position);
+                add(positionsByMdcValue.computeIfAbsent(key, newKey -> new HashMap<>()), value, position);
+            });
+        }
+        if (event.getMarkers() != null) {
+            event.getMarkers().forEach(marker -> indexMarker(marker, position));
+        }
+        if (event.getKeyValuePairs() != null) {
+            event.getKeyValuePairs().forEach(pair -> add(positionsByKeyValueKey, pair.key, position));
+        }
+    }
+
+    // Marker.contains() also finds referenced markers, so these are indexed as well
+    private void indexMarker(Marker marker, int position) {
+        add(positionsByMarkerName, marker.getName(), position);
+        for (Iterator<Marker> references = marker.iterator(); references.hasNext(); ) {
+            indexMarker(references.next(), position);
+        }
+    }
+
+    private static void add(Map<String, PositionList> positionsByName, String name, int position) {
+        positionsByName.computeIfAbsent(name, newName -> new PositionList()).add(position);
+    }
+
+    private static EventPositions union(Map<String, PositionList> positionsByName, TextPattern pattern) {
+        List<EventPositions> matchingPositions = new ArrayList<>();
+        positionsByName.forEach((name, positions) -> {
+            if (name != null && pattern.isFoundIn(name)) {
+                matchingPositions.add(positions.toEventPositions());
+            }
+        });
+        return matchingPositions.isEmpty() ? EventPositions.range(0, 0) : EventPositions.union(matchingPositions);
+    }
+
+    private static EventPositions positionsOf(PositionList positions) {
+        return positions == null ? EventPositions.range(0, 0) : positions.toEventPositions();
+    }
+}
@@ -0,0 +1,90 @@
+package de.dm.infrastructure.logcapture;
+
+import java.util.Arrays;
+
+/**
+ * assigns each expectation to a different captured event, using the Hopcroft-Karp algorithm. Unlike taking the first
+ * matching event for each expectation, this finds an assignment whenever one exists, in O(E * sqrt(V)) for E candidate
+ * pairs and V expectations and events.
+ */
+final class BipartiteMatching {
+    static final int UNMATCHED = -1;
+
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private final int[][] candidatesOfExpectation;
+    private final int[] eventOfExpectation;
+    private final int[] expectationOfEvent;
+    private final int[] distance;
+
+    private BipartiteMatching(int[][] candidatesOfExpectation, int numberOfEvents) {
+        this.candidatesOfExpectation = candidatesOfExpectation;
+        eventOfExpectation = new int[candidatesOfExpectation.length];
+        expectationOfEvent = new int[numberOfEvents];
+        distance = new int[candidatesOfExpectation.length];
+        Arrays.fill(eventOfExpectation, UNMATCHED);
+        Arrays.fill(expectationOfEvent, UNMATCHED);
+    }
+
+    /*
+     * candidatesOfExpectation contains the positions of the events that each expectation matches. Returns the position of the
+     * event assigned to each expectation, or UNMATCHED for expectations that could not be assigned in a maximum matching.
+     */
+    static int[] assign(int[][] candidatesOfExpectation, int numberOfEvents) {
+        BipartiteMatching matching = new BipartiteMatching(candidatesOfExpectation, numberOfEvents);
+        while (matching.layerUnmatchedExpectations()) {
+            for (int expectation = 0; expectation < candidatesOfExpectation.length; expectation++) {
+                if (matching.eventOfExpectation[expectation] == UNMATCHED) {
+                    matching.augment(expectation);
+                }
+            }
+        }
+        return matching.eventOfExpectation;
+    }
+
+    /*
+     * breadth-first search from all unmatched expectations along alternating paths. Returns true if an unmatched event can
+     * be reached, so that the matching can still be augmented.
+     */
+    private boolean layerUnmatchedExpectations() {
+        int[] queue = new int[candidatesOfExpectation.length];
+        int head = 0;
+        int tail = 0;
+        for (int expectation = 0; expectation < candidatesOfExpectation.length; expectation++) {
+            if (eventOfExpectation[expectation] == UNMATCHED) {
+                distance[expectation] = 0;
+                queue[tail++] = expectation;
+            } else {
+                distance[expectation] = UNREACHABLE;
+            }
+        }
+        boolean unmatchedEventReached = false;
+        while (head < tail) {
+            int expectation = queue[head++];
+            for (int event : candidatesOfExpectation[expectation]) {
+                int nextExpectation = expectationOfEvent[event];
+                if (nextExpectation == UNMATCHED) {
+                    unmatchedEventReached = true;
+                } else if (distance[nextExpectation] == UNREACHABLE) {
+                    distance[nextExpectation] = distance[expectation] + 1;
+                    queue[tail++] = nextExpectation;
+                }
+            }
+        }
+        return unmatchedEventReached;
+    }
+
+    // depth-first search for an augmenting path along the layers. Depth is bounded by the number of expectations.
+    private boolean augment(int expectation) {
+        for (int event : candidatesOfExpectation[expectation]) {
+            int nextExpectation = expectationOfEvent[event];
+            if (nextExpectation == UNMATCHED || distance[nextExpectation] == distance[expectation] + 1 && augment(nextExpectation)) {
+                eventOfExpectation[expectation] = event;
+                expectationOfEvent[event] = expectation;
+                return true;
+            }
+        }
+        distance[expectation] = UNREACHABLE;
+        return false;
+    }
+}
@@ -0,0 +1,77 @@
+package de.dm.infrastructure.logcapture;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * attributes log events to the captures that have been started on the thread that logs them, so that tests running in
+ * parallel only see their own log events.
+ * <p>
+ * Threads without an active capture (like executor threads that the code under test uses) cannot be attributed to a
+ * test, so their log events are offered to every capture, unless their tasks have been wrapped to propagate the captures
+ * of the thread that handed them over.
+ */
+final class CaptureAttribution {
+    private static final ThreadLocal<List<CapturingAppender>> ACTIVE_CAPTURES = new ThreadLocal<>();
+
+    private CaptureAttribution() {
+    }
+
+    /*
+     * returns the captures that are active on the current thread, so that capturing can also be ended on another thread
+     */
+    static List<CapturingAppender> activate(CapturingAppender capturingAppender) {
+        List<CapturingAppender> activeCaptures = ACTIVE_CAPTURES.get();
+        if (activeCaptures == null) {
+            activeCaptures = new CopyOnWriteArrayList<>();
+            ACTIVE_CAPTURES.set(activeCaptures);
+        }
+        activeCaptures.add(capturingAppender);
+        return activeCaptures;
+    }
+
+    static void deactivate(List<CapturingAppender> activeCaptures, CapturingAppender capturingAppender) {
+        activeCaptures.remove(capturingAppender);
+        if (activeCaptures.isEmpty() && ACTIVE_CAPTURES.get() == activeCaptures) {
+            ACTIVE_CAPTURES.remove();
+        }
+    }
+
+    static Runnable propagate(List<CapturingAppender> captures, Runnable task) {
+        return () -> {
+            List<CapturingAppender> previousCaptures = ACTIVE_CAPTURES.get();
+            ACTIVE_CAPTURES.set(captures);
+            try {
+                task.run();
+            } finally {
+                restore(previousCaptures);
+            }
+        };
+    }
+
+    static <T> Callable<T> propagate(List<CapturingAppender> captures, Callable<T> task) {
+        return () -> {
+            List<CapturingAppender> previousCaptures = ACTIVE_CAPTURES.get();
+            ACTIVE_CAPTURES.set(captures);
+            try {
+                return task.call();
+            } finally {
+                restore(previousCaptures);
+            }
+        };
+    }
+
+    private static void restore(List<CapturingAppender> previousCaptures) {
+        if (previousCaptures == null) {
+            ACTIVE_CAPTURES.remove();
+        } else {
+            ACTIVE_CAPTURES.set(previousCaptures);
+        }
+    }
+
+    static boolean isAttributedTo(CapturingAppender capturingAppender) {
+        List<CapturingAppender> activeCaptures = ACTIVE_CAPTURES.get();
+        return activeCaptures == null || activeCaptures.isEmpty() || activeCaptures.contains(capturingAppender);
+    }
+}
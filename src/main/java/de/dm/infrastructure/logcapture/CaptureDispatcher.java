@@ -0,0 +1,72 @@
+package de.dm.infrastructure.logcapture;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.util.ReentryGuard;
+import ch.qos.logback.core.util.ReentryGuardFactory;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.slf4j.Logger.ROOT_LOGGER_NAME;
+
+/**
+ * the only appender that log capture attaches to the root logger, no matter how many captures are active. It hands log events
+ * to the active captures, which only keep the events attributed to them by {@link CaptureAttribution}.
+ * <p>
+ * It is attached while at least one capture is active. Afterwards, it is also forgotten, since it references its logger
+ * context and would keep the context from being garbage collected.
+ * <p>
+ * Captured events are formatted while they are appended. If formatting an argument logs something itself, a re-entry guard
+ * keeps that event from being dispatched again within the same thread.
+ */
+final class CaptureDispatcher extends UnsynchronizedAppenderBase<ILoggingEvent> {
+    private static final Map<LoggerContext, CaptureDispatcher> DISPATCHERS = new HashMap<>();
+
+    private final Logger rootLogger;
+    private final List<CapturingAppender> captures = new CopyOnWriteArrayList<>();
+
+    private CaptureDispatcher(LoggerContext loggerContext) {
+        rootLogger = loggerContext.getLogger(ROOT_LOGGER_NAME);
+        setName("CAPTURE-DISPATCHER");
+        setContext(loggerContext);
+        start();
+    }
+
+    static synchronized void addCapture(LoggerContext loggerContext, CapturingAppender capturingAppender) {
+        CaptureDispatcher dispatcher = DISPATCHERS.computeIfAbsent(loggerContext, CaptureDispatcher::new);
+        dispatcher.captures.add(capturingAppender);
+        // LoggerContext.reset() detaches and stops all appenders, including this one
+        if (!dispatcher.isStarted()) {
+            dispatcher.start();
+        }
+        if (!dispatcher.rootLogger.isAttached(dispatcher)) {
+            dispatcher.rootLogger.addAppender(dispatcher);
+        }
+    }
+
+    static synchronized void removeCapture(LoggerContext loggerContext, CapturingAppender capturingAppender) {
+        CaptureDispatcher dispatcher = DISPATCHERS.get(loggerContext);
+        if (dispatcher != null && dispatcher.captures.remove(capturingAppender) && dispatcher.captures.isEmpty()) {
+            dispatcher.rootLogger.detachAppender(dispatcher);
+            DISPATCHERS.remove(loggerContext);
+        }
+    }
+
+    // UnsynchronizedAppenderBase does not guard against re-entry by default
+    @Override
+    protected ReentryGuard buildReentryGuard() {
+        return ReentryGuardFactory.makeGuard(ReentryGuardFactory.GuardType.THREAD_LOCAL);
+    }
+
+    @Override
+    protected void append(ILoggingEvent loggingEvent) {
+        for (CapturingAppender capture : captures) {
+            capture.doAppend(loggingEvent);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package de.dm.infrastructure.logcapture;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * an executor service that runs its tasks with the captures of the thread that submitted them. All ways of submitting a
+ * task end up in {@link #execute(Runnable)}, so this is the only place where tasks need to be wrapped.
+ */
+final class CapturePropagatingExecutorService extends AbstractExecutorService {
+    private final ExecutorService delegate;
+    private final LogCapture logCapture;
+
+    CapturePropagatingExecutorService(ExecutorService delegate, LogCapture logCapture) {
+        this.delegate = delegate;
+        this.logCapture = logCapture;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        delegate.execute(logCapture.propagateCapture(command));
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+}
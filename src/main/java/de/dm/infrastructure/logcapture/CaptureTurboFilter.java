@@ -0,0 +1,63 @@
+package de.dm.infrastructure.logcapture;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * enables log statements of captured packages at their capture level without changing the levels of their loggers.
+ * <p>
+ * Logback asks turbo filters before it checks the logger's level and before it creates a logging event. So statements
+ * that are only enabled for capturing are accepted here, and everything else is left to the logger's level. Capture
+ * levels are looked up like logback resolves effective levels (the nearest configured package wins) and cached by
+ * logger name.
+ */
+final class CaptureTurboFilter extends TurboFilter {
+    private static final int MAX_CACHED_LEVELS = 10_000;
+    private static final Level NOT_CAPTURED = Level.OFF;
+
+    private final Map<String, Level> captureLevels;
+    private final Map<String, Level> captureLevelsByLogger = new ConcurrentHashMap<>();
+
+    CaptureTurboFilter(Map<String, Level> captureLevels) {
+        this.captureLevels = Map.copyOf(captureLevels);
+        setName("CAPTURE-FILTER");
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        Level captureLevel = getCaptureLevel(logger.getName());
+        return captureLevel != NOT_CAPTURED && level.isGreaterOrEqual(captureLevel) ? FilterReply.ACCEPT : FilterReply.NEUTRAL;
+    }
+
+    private Level getCaptureLevel(String loggerName) {
+        Level captureLevel = captureLevelsByLogger.get(loggerName);
+        if (captureLevel == null) {
+            captureLevel = findCaptureLevel(loggerName);
+            if (captureLevelsByLogger.size() < MAX_CACHED_LEVELS) {
+                captureLevelsByLogger.put(loggerName, captureLevel);
+            }
+        }
+        return captureLevel;
+    }
+
+    private Level findCaptureLevel(String loggerName) {
+        String name = loggerName;
+        while (true) {
+            Level captureLevel = captureLevels.get(name);
+            if (captureLevel != null) {
+                return captureLevel;
+            }
+            int separator = Math.max(name.lastIndexOf('.'), name.lastIndexOf('$'));
+            if (separator < 0) {
+                return captureLevels.getOrDefault("", NOT_CAPTURED);
+            }
+            name = name.substring(0, separator);
+        }
+    }
+}
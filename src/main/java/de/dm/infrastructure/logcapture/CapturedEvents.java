@@ -0,0 +1,74 @@
+package de.dm.infrastructure.logcapture;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * append-only list of captured events that many threads can append to at the same time without locking.
+ * <p>
+ * Events are stored in segments that double in size, so segments never need to be copied when the list grows.
+ * An appending thread claims a position with a single atomic increment and then publishes its event into that slot.
+ * Readers only see the contiguous prefix of published events, so the list keeps the order in which positions were claimed
+ * and never exposes a gap of an event that is still being written. Finding the end of that prefix is left to the readers,
+ * because assertions read far less often than the code under test logs.
+ */
+final class CapturedEvents extends AbstractList<LoggedEvent> implements RandomAccess {
+    private static final int FIRST_SEGMENT_SHIFT = 10;
+    private static final int MAX_SEGMENTS = Integer.SIZE - FIRST_SEGMENT_SHIFT;
+
+    private final AtomicReferenceArray<AtomicReferenceArray<LoggedEvent>> segments = new AtomicReferenceArray<>(MAX_SEGMENTS);
+    private final AtomicInteger claimed = new AtomicInteger();
+    private final AtomicInteger published = new AtomicInteger();
+
+    @Override
+    public boolean add(LoggedEvent loggedEvent) {
+        int position = claimed.getAndIncrement();
+        int segmentIndex = segmentIndex(position);
+        segment(segmentIndex).lazySet(offsetInSegment(position, segmentIndex), loggedEvent);
+        return true;
+    }
+
+    @Override
+    public LoggedEvent get(int index) {
+        if (index < 0 || index >= published.get() && index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        return slot(index);
+    }
+
+    @Override
+    public int size() {
+        int current = published.get();
+        while (current < claimed.get() && slot(current) != null) {
+            published.compareAndSet(current, current + 1);
+            current = published.get();
+        }
+        return current;
+    }
+
+    private LoggedEvent slot(int position) {
+        int segmentIndex = segmentIndex(position);
+        AtomicReferenceArray<LoggedEvent> segment = segments.get(segmentIndex);
+        return segment == null ? null : segment.get(offsetInSegment(position, segmentIndex));
+    }
+
+    private AtomicReferenceArray<LoggedEvent> segment(int segmentIndex) {
+        AtomicReferenceArray<LoggedEvent> segment = segments.get(segmentIndex);
+        if (segment == null) {
+            segments.compareAndSet(segmentIndex, null, new AtomicReferenceArray<>(1 << (FIRST_SEGMENT_SHIFT + segmentIndex)));
+            segment = segments.get(segmentIndex);
+        }
+        return segment;
+    }
+
+    // segment n starts at position (2^n - 1) * 2^FIRST_SEGMENT_SHIFT and is 2^(n + FIRST_SEGMENT_SHIFT) slots long
+    private static int segmentIndex(int position) {
+        return 31 - Integer.numberOfLeadingZeros((position >>> FIRST_SEGMENT_SHIFT) + 1);
+    }
+
+    private static int offsetInSegment(int position, int segmentIndex) {
+        return position - (((1 << segmentIndex) - 1) << FIRST_SEGMENT_SHIFT);
+    }
+}
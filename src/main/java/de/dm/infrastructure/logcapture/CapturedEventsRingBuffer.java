@@ -0,0 +1,114 @@
+package de.dm.infrastructure.logcapture;
+
+import lombok.Getter;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static de.dm.infrastructure.logcapture.OverflowPolicy.DROP_OLDEST;
+
+/**
+ * preallocated, fixed-size alternative to {@link CapturedEvents} for captures that would otherwise grow without limit.
+ * <p>
+ * Like {@link CapturedEvents}, appending threads claim a position with a single atomic increment and readers only see
+ * the contiguous prefix of published positions. Each slot holds its event together with its position, so a slot that has
+ * been reused for a newer event is not mistaken for an event that is still being written. A slot only ever moves on to
+ * newer positions: a writer that finds its slot already taken by a later lap discards its event, which has been evicted
+ * anyway, instead of waiting. So appending never waits for other threads. The list view contains the events that are
+ * still retained, oldest first.
+ * <p>
+ * Reading while other threads keep appending with {@link OverflowPolicy#DROP_OLDEST} may see events that are evicted
+ * during the read, so assertions should run after the code under test has stopped logging.
+ */
+final class CapturedEventsRingBuffer extends AbstractList<LoggedEvent> implements RandomAccess {
+    @Getter
+    private final int capacity;
+    @Getter
+    private final OverflowPolicy overflowPolicy;
+
+    private final AtomicReferenceArray<Entry> slots;
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong published = new AtomicLong();
+
+    CapturedEventsRingBuffer(int capacity, OverflowPolicy overflowPolicy) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity of a bounded capture must be at least 1, but was " + capacity);
+        }
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+        slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    @Override
+    public boolean add(LoggedEvent loggedEvent) {
+        return store(claim(), loggedEvent);
+    }
+
+    /*
+     * add() in two steps, so that tests can control the order in which claimed positions are stored
+     */
+    long claim() {
+        return claimed.getAndIncrement();
+    }
+
+    boolean store(long position, LoggedEvent loggedEvent) {
+        if (position >= capacity && overflowPolicy != DROP_OLDEST) {
+            return false;
+        }
+        int slot = (int) (position % capacity);
+        Entry entry = new Entry(position, loggedEvent);
+        Entry current = slots.get(slot);
+        // each failed attempt means that another writer of this slot has succeeded
+        while (current == null || current.position < position) {
+            if (slots.compareAndSet(slot, current, entry)) {
+                return true;
+            }
+            current = slots.get(slot);
+        }
+        return true;
+    }
+
+    @Override
+    public LoggedEvent get(int index) {
+        long end = publishedEnd();
+        long start = Math.max(0, end - capacity);
+        if (index < 0 || index >= end - start) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + (end - start));
+        }
+        return slots.get((int) ((start + index) % capacity)).event;
+    }
+
+    @Override
+    public int size() {
+        long end = publishedEnd();
+        return (int) (end - Math.max(0, end - capacity));
+    }
+
+    /**
+     * @return number of events that have been logged but are not (or no longer) contained in this buffer
+     */
+    long getDroppedEvents() {
+        return Math.max(0, claimed.get() - capacity);
+    }
+
+    private long publishedEnd() {
+        long current = published.get();
+        long limit = overflowPolicy == DROP_OLDEST ? claimed.get() : Math.min(claimed.get(), capacity);
+        while (current < limit && isStored(current)) {
+            published.compareAndSet(current, current + 1);
+            current = published.get();
+        }
+        return current;
+    }
+
+    // also true if the position's event has been discarded, since its slot already holds a later one
+    private boolean isStored(long position) {
+        Entry entry = slots.get((int) (position % capacity));
+        return entry != null && entry.position >= position;
+    }
+
+    private record Entry(long position, LoggedEvent event) {
+    }
+}
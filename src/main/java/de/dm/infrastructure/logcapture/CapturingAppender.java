@@ -1,8 +1,8 @@
 package de.dm.infrastructure.logcapture;
 
+import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.LoggerContext;
 import ch.qos.logback.classic.spi.ILoggingEvent;
-import ch.qos.logback.classic.spi.IThrowableProxy;
 import ch.qos.logback.core.Appender;
 import ch.qos.logback.core.filter.Filter;
 import ch.qos.logback.core.spi.ContextAwareBase;
@@ -10,16 +10,30 @@ import ch.qos.logback.core.spi.FilterReply;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.String.format;
 
 class CapturingAppender extends ContextAwareBase implements Appender<ILoggingEvent> {
+    private static final AtomicLong NUMBER_OF_CAPTURES = new AtomicLong();
+    static final int DEFAULT_PARALLEL_MATCHING_THRESHOLD = 1_000_000;
+
     @Getter
-    List<LoggedEvent> loggedEvents = new ArrayList<>();
-    private final Set<String> capturedPackages;
+    final List<LoggedEvent> loggedEvents;
+    private final PackageTrie capturedPackages;
+    private final boolean lazyMaterialization;
+    private final LevelIndex levelIndex;
+    private final AttributeIndex attributeIndex;
+    private final MessageIndex messageIndex;
+    final int parallelMatchingThreshold;
+    final OnlineExpectations onlineExpectations = new OnlineExpectations();
+    @Getter
+    private boolean buffering = true;
 
     @Getter
     @Setter
@@ -28,46 +42,126 @@ class CapturingAppender extends ContextAwareBase implements Appender<ILoggingEve
     private boolean started;
 
     CapturingAppender(LoggerContext loggerContext, Set<String> capturedPackages) {
+        this(loggerContext, capturedPackages, new CapturedEvents(), false, false, false);
+    }
+
+    CapturingAppender(LoggerContext loggerContext, Set<String> capturedPackages, List<LoggedEvent> loggedEvents, boolean lazyMaterialization,
+                      boolean indexAttributes, boolean indexMessages) {
+        this(loggerContext, capturedPackages, loggedEvents, lazyMaterialization, indexAttributes, indexMessages, DEFAULT_PARALLEL_MATCHING_THRESHOLD);
+    }
+
+    CapturingAppender(LoggerContext loggerContext, Set<String> capturedPackages, List<LoggedEvent> loggedEvents, boolean lazyMaterialization,
+                      boolean indexAttributes, boolean indexMessages, int parallelMatchingThreshold) {
+        this(loggerContext, new PackageTrie(capturedPackages), loggedEvents, lazyMaterialization, indexAttributes, indexMessages, parallelMatchingThreshold);
+    }
+
+    /*
+     * only keeps events at or above the capture level of their package, since captures that run in parallel share the levels
+     * of their loggers, and the most verbose one is set. Assertions that look at least at parallelMatchingThreshold events
+     * match them in parallel.
+     */
+    CapturingAppender(LoggerContext loggerContext, Map<String, Level> captureLevels, List<LoggedEvent> loggedEvents, boolean lazyMaterialization,
+                      boolean indexAttributes, boolean indexMessages, int parallelMatchingThreshold) {
+        this(loggerContext, new PackageTrie(captureLevels), loggedEvents, lazyMaterialization, indexAttributes, indexMessages, parallelMatchingThreshold);
+    }
+
+    private CapturingAppender(LoggerContext loggerContext, PackageTrie capturedPackages, List<LoggedEvent> loggedEvents, boolean lazyMaterialization,
+                              boolean indexAttributes, boolean indexMessages, int parallelMatchingThreshold) {
         this.capturedPackages = capturedPackages;
-        setName("CAPTURE-" + Thread.currentThread().getId());
+        this.loggedEvents = loggedEvents;
+        this.lazyMaterialization = lazyMaterialization;
+        levelIndex = loggedEvents instanceof CapturedEvents ? new LevelIndex(loggedEvents) : null;
+        attributeIndex = indexAttributes && loggedEvents instanceof CapturedEvents ? new AttributeIndex(loggedEvents) : null;
+        messageIndex = indexMessages && loggedEvents instanceof CapturedEvents ? new MessageIndex(loggedEvents) : null;
+        this.parallelMatchingThreshold = parallelMatchingThreshold;
+        setName("CAPTURE-" + NUMBER_OF_CAPTURES.incrementAndGet());
         setContext(loggerContext);
     }
 
     @Override
-    public synchronized void doAppend(ILoggingEvent loggingEvent) {
-        if (eventIsRelevant(loggingEvent)) {
-            loggedEvents.add(
-                    LoggedEvent.builder()
-                            .loggerName(loggingEvent.getLoggerName())
-                            .level(loggingEvent.getLevel())
-                            .formattedMessage(loggingEvent.getFormattedMessage())
-                            .mdcData(loggingEvent.getMDCPropertyMap())
-                            .loggedException(getLoggedException(loggingEvent.getThrowableProxy()))
-                            .markers(loggingEvent.getMarkerList())
-                            .keyValuePairs(loggingEvent.getKeyValuePairs())
-                            .build());
+    public void doAppend(ILoggingEvent loggingEvent) {
+        if (eventIsRelevant(loggingEvent) && CaptureAttribution.isAttributedTo(this)) {
+            LoggedEvent loggedEvent = lazyMaterialization ? LoggedEvent.lazilyOf(loggingEvent) : LoggedEvent.of(loggingEvent);
+            onlineExpectations.check(loggedEvent);
+            if (buffering) {
+                loggedEvents.add(loggedEvent);
+            }
         }
     }
 
-    private Optional<LoggedEvent.LoggedException> getLoggedException(IThrowableProxy throwableProxy) {
-        if (throwableProxy == null) {
-            return Optional.empty();
+    /*
+     * only checks captured events against online expectations instead of keeping them. Must be called before the appender
+     * is attached.
+     */
+    void disableBuffering() {
+        buffering = false;
+    }
+
+    /*
+     * positions from startIndex on of the events that may match the expected level, message and matchers
+     */
+    EventPositions getCandidatePositions(Optional<Level> level, TextPattern messagePattern, int startIndex, List<? extends LogEventMatcher> logEventMatchers) {
+        EventPositions candidatePositions = level.isPresent() && levelIndex != null
+                ? levelIndex.positions(level.get()).startingAt(startIndex)
+                : EventPositions.range(startIndex, loggedEvents.size());
+        if (attributeIndex != null) {
+            for (LogEventMatcher logEventMatcher : logEventMatchers) {
+                EventPositions matcherPositions = attributeIndex.candidatePositions(logEventMatcher);
+                if (matcherPositions != null) {
+                    candidatePositions = candidatePositions.intersect(matcherPositions);
+                }
+            }
         }
+        if (messageIndex != null) {
+            EventPositions messagePositions = messageIndex.candidatePositions(messagePattern.requiredLiteral());
+            if (messagePositions != null) {
+                candidatePositions = candidatePositions.intersect(messagePositions);
+            }
+        }
+        return candidatePositions;
+    }
 
-        return Optional.of(LoggedEvent.LoggedException.builder()
-                .type(throwableProxy.getClassName())
-                .message(throwableProxy.getMessage())
-                .cause(getLoggedException(throwableProxy.getCause()))
-                .build());
+    /*
+     * number of events that have been captured so far, including dropped ones. Unlike positions, this does not shift when
+     * a bounded capture drops its oldest events.
+     */
+    long getNumberOfCapturedEvents() {
+        return loggedEvents.size() + getNumberOfDroppedEvents();
     }
 
-    private boolean eventIsRelevant(ILoggingEvent loggingEvent) {
-        for (String packageName : capturedPackages) {
-            if (loggingEvent.getLoggerName().startsWith(packageName)) {
-                return true;
-            }
+    /*
+     * position of the first event that has been captured after numberOfCapturedEvents, or of the oldest retained one if that
+     * has been dropped
+     */
+    int getPositionAfter(long numberOfCapturedEvents) {
+        if (loggedEvents instanceof CapturedEventsRingBuffer ringBuffer && ringBuffer.getOverflowPolicy() == OverflowPolicy.DROP_OLDEST) {
+            return (int) Math.max(0, numberOfCapturedEvents - ringBuffer.getDroppedEvents());
         }
-        return false;
+        return (int) Math.min(numberOfCapturedEvents, loggedEvents.size());
+    }
+
+    long getNumberOfDroppedEvents() {
+        return loggedEvents instanceof CapturedEventsRingBuffer ringBuffer ? ringBuffer.getDroppedEvents() : 0;
+    }
+
+    void assertCapacityNotExceeded() {
+        if (loggedEvents instanceof CapturedEventsRingBuffer ringBuffer && ringBuffer.getOverflowPolicy() == OverflowPolicy.FAIL && ringBuffer.getDroppedEvents() > 0) {
+            throw new AssertionError(format("More log messages have been captured than the capacity of %s allows. %s more have been dropped.",
+                    ringBuffer.getCapacity(), ringBuffer.getDroppedEvents()));
+        }
+    }
+
+    String getDroppedEventsHint() {
+        if (!(loggedEvents instanceof CapturedEventsRingBuffer ringBuffer) || ringBuffer.getDroppedEvents() == 0) {
+            return "";
+        }
+        return format("Note: %s log messages have been dropped because the capture is bounded to %s messages (%s). The expected message may have been among them.%n",
+                ringBuffer.getDroppedEvents(), ringBuffer.getCapacity(), ringBuffer.getOverflowPolicy());
+    }
+
+    private boolean eventIsRelevant(ILoggingEvent loggingEvent) {
+        Level captureLevel = capturedPackages.captureLevel(loggingEvent.getLoggerName());
+        return captureLevel != null && loggingEvent.getLevel().isGreaterOrEqual(captureLevel);
     }
 
     @Override
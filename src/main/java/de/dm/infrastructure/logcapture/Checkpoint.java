@@ -0,0 +1,15 @@
+package de.dm.infrastructure.logcapture;
+
+/**
+ * position in a capture that assertions can be limited to, see {@link LogCapture#checkpoint()} and
+ * {@link LogCapture#since(Checkpoint)}
+ */
+public final class Checkpoint {
+    final CapturingAppender capturingAppender;
+    final long numberOfCapturedEvents;
+
+    Checkpoint(CapturingAppender capturingAppender, long numberOfCapturedEvents) {
+        this.capturingAppender = capturingAppender;
+        this.numberOfCapturedEvents = numberOfCapturedEvents;
+    }
+}
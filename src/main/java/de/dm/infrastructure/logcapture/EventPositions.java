@@ -0,0 +1,140 @@
+package de.dm.infrastructure.logcapture;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * ascending positions of captured events that may match an expectation. Assertions only look at these events instead of
+ * scanning all captured events.
+ */
+final class EventPositions {
+    private final int[] positions;
+    private final int from;
+    private final int to;
+
+    private EventPositions(int[] positions, int from, int to) {
+        this.positions = positions;
+        this.from = from;
+        this.to = to;
+    }
+
+    /*
+     * all positions in [from, to)
+     */
+    static EventPositions range(int from, int to) {
+        return new EventPositions(null, from, Math.max(from, to));
+    }
+
+    /*
+     * the first size entries of an ascending array, which must not be changed afterwards
+     */
+    static EventPositions of(int[] positions, int size) {
+        return new EventPositions(positions, 0, size);
+    }
+
+    /*
+     * positions that are contained in any of the given positions
+     */
+    static EventPositions union(List<EventPositions> eventPositions) {
+        if (eventPositions.size() == 1) {
+            return eventPositions.get(0);
+        }
+        BitSet union = new BitSet();
+        for (EventPositions positionsToAdd : eventPositions) {
+            for (int i = 0; i < positionsToAdd.size(); i++) {
+                union.set(positionsToAdd.get(i));
+            }
+        }
+        int[] positions = union.stream().toArray();
+        return of(positions, positions.length);
+    }
+
+    /*
+     * true if both contain the same positions because they are the same part of the same index
+     */
+    boolean isSameAs(EventPositions other) {
+        return positions == other.positions && from == other.from && to == other.to;
+    }
+
+    boolean contains(int position) {
+        if (positions == null) {
+            return position >= from && position < to;
+        }
+        return Arrays.binarySearch(positions, from, to, position) >= 0;
+    }
+
+    int size() {
+        return to - from;
+    }
+
+    int get(int index) {
+        return positions == null ? from + index : positions[from + index];
+    }
+
+    EventPositions intersect(EventPositions other) {
+        if (positions == null) {
+            return other.within(from, to);
+        }
+        if (other.positions == null) {
+            return within(other.from, other.to);
+        }
+        if (size() > other.size()) {
+            return other.intersect(this);
+        }
+        // with few positions, looking each of them up is cheaper than walking through all other positions
+        return size() * 8 < other.size() ? intersectByLookup(other) : intersectByMerge(other);
+    }
+
+    private EventPositions intersectByLookup(EventPositions other) {
+        int[] intersection = new int[size()];
+        int size = 0;
+        int j = other.from;
+        for (int i = from; i < to && j < other.to; i++) {
+            int insertionPoint = Arrays.binarySearch(other.positions, j, other.to, positions[i]);
+            if (insertionPoint >= 0) {
+                intersection[size++] = positions[i];
+                j = insertionPoint + 1;
+            } else {
+                j = -insertionPoint - 1;
+            }
+        }
+        return of(intersection, size);
+    }
+
+    private EventPositions intersectByMerge(EventPositions other) {
+        int[] intersection = new int[size()];
+        int size = 0;
+        int i = from;
+        int j = other.from;
+        while (i < to && j < other.to) {
+            if (positions[i] < other.positions[j]) {
+                i++;
+            } else if (positions[i] > other.positions[j]) {
+                j++;
+            } else {
+                intersection[size++] = positions[i];
+                i++;
+                j++;
+            }
+        }
+        return of(intersection, size);
+    }
+
+    private EventPositions within(int startPosition, int endPosition) {
+        EventPositions startingAt = startingAt(startPosition);
+        if (positions == null) {
+            return range(startingAt.from, Math.min(to, endPosition));
+        }
+        int insertionPoint = Arrays.binarySearch(positions, startingAt.from, to, endPosition);
+        return new EventPositions(positions, startingAt.from, insertionPoint >= 0 ? insertionPoint : -insertionPoint - 1);
+    }
+
+    EventPositions startingAt(int startPosition) {
+        if (positions == null) {
+            return range(Math.max(from, startPosition), to);
+        }
+        int insertionPoint = Arrays.binarySearch(positions, from, to, startPosition);
+        return new EventPositions(positions, insertionPoint >= 0 ? insertionPoint : -insertionPoint - 1, to);
+    }
+}
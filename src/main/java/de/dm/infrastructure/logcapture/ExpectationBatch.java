@@ -0,0 +1,331 @@
+package de.dm.infrastructure.logcapture;
+
+import ch.qos.logback.classic.Level;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * evaluates several expectations in one pass over the captured events instead of scanning the capture once per
+ * expectation. Events are only checked against the expectations whose candidate positions contain them, so level and
+ * attribute indexes still narrow down the events each expectation looks at.
+ * <p>
+ * Keeps the number of matches and the first and last matching position of each expectation.
+ * <p>
+ * For larger batches, the texts that the expected messages require are searched with one {@link LiteralAutomaton}, so
+ * that each message is read once. Then only the expectations whose required text has been found are checked further.
+ * <p>
+ * Counting matches in captures of at least {@link CapturingAppender#parallelMatchingThreshold} events is split into chunks
+ * that are matched in parallel and merged afterwards.
+ */
+final class ExpectationBatch {
+    static final int NO_MATCH = -1;
+
+    private static final int PARALLEL_CHUNK_SIZE = 16_384;
+
+    // below this, searching each required text on its own with String.contains() is faster than building an automaton
+    private static final int MIN_LITERALS_FOR_AUTOMATON = 8;
+
+    private final CapturingAppender capturingAppender;
+    private final int startIndex;
+    private final LogExpectation[] logExpectations;
+    private final Level[] expectedLevels;
+    private final TextPattern[] messagePatterns;
+    private final MatcherOrder[] matcherOrders;
+    private final EventPositions[] candidatePositions;
+    private final int[] candidateCursors;
+    private final LiteralAutomaton literalAutomaton;
+    private final int[][] expectationsOfLiteral;
+    private final int[] expectationsWithoutLiteral;
+    private final int[] candidateExpectations;
+    private int numberOfCandidateExpectations;
+
+    final int[] numberOfMatches;
+    final int[] firstMatch;
+    final int[] lastMatch;
+
+    /*
+     * only looks at events from startIndex on. globalLogEventMatchers are applied to each expectation in addition to its own
+     * matchers.
+     */
+    ExpectationBatch(CapturingAppender capturingAppender, int startIndex, List<LogEventMatcher> globalLogEventMatchers, LogExpectation... logExpectations) {
+        this.capturingAppender = capturingAppender;
+        this.startIndex = startIndex;
+        this.logExpectations = logExpectations;
+        expectedLevels = new Level[logExpectations.length];
+        messagePatterns = new TextPattern[logExpectations.length];
+        matcherOrders = new MatcherOrder[logExpectations.length];
+        candidatePositions = new EventPositions[logExpectations.length];
+        candidateCursors = new int[logExpectations.length];
+        candidateExpectations = new int[logExpectations.length];
+        numberOfMatches = new int[logExpectations.length];
+        firstMatch = new int[logExpectations.length];
+        lastMatch = new int[logExpectations.length];
+        for (int expectation = 0; expectation < logExpectations.length; expectation++) {
+            List<LogEventMatcher> matchersOfExpectation = new ArrayList<>(globalLogEventMatchers);
+            matchersOfExpectation.addAll(logExpectations[expectation].logEventMatchers);
+            // resolved once, so that matching allocates nothing per event
+            expectedLevels[expectation] = logExpectations[expectation].level.orElse(null);
+            messagePatterns[expectation] = logExpectations[expectation].messagePattern.forScan();
+            matcherOrders[expectation] = new MatcherOrder(matchersOfExpectation);
+            candidatePositions[expectation] = capturingAppender.getCandidatePositions(logExpectations[expectation].level,
+                    logExpectations[expectation].messagePattern, startIndex, matchersOfExpectation);
+        }
+
+        Map<String, List<Integer>> expectationsByLiteral = new LinkedHashMap<>();
+        List<Integer> withoutLiteral = new ArrayList<>();
+        for (int expectation = 0; expectation < logExpectations.length; expectation++) {
+            String literal = logExpectations[expectation].messagePattern.requiredLiteral();
+            if (literal.isEmpty()) {
+                withoutLiteral.add(expectation);
+            } else {
+                expectationsByLiteral.computeIfAbsent(literal, newLiteral -> new ArrayList<>()).add(expectation);
+            }
+        }
+        if (expectationsByLiteral.size() >= MIN_LITERALS_FOR_AUTOMATON) {
+            literalAutomaton = new LiteralAutomaton(new ArrayList<>(expectationsByLiteral.keySet()));
+            expectationsOfLiteral = expectationsByLiteral.values().stream().map(ExpectationBatch::toArray).toArray(int[][]::new);
+            expectationsWithoutLiteral = toArray(withoutLiteral);
+        } else {
+            literalAutomaton = null;
+            expectationsOfLiteral = null;
+            expectationsWithoutLiteral = null;
+        }
+    }
+
+    /*
+     * counts all matches of each expectation
+     */
+    void countMatches() {
+        EventPositions positions = startPass();
+        if (positions.size() >= capturingAppender.parallelMatchingThreshold) {
+            countMatchesInParallel(positions);
+            return;
+        }
+        for (int i = 0; i < positions.size(); i++) {
+            int position = positions.get(i);
+            LoggedEvent event = capturingAppender.loggedEvents.get(position);
+            findCandidateExpectations(position, event);
+            for (int candidate = 0; candidate < numberOfCandidateExpectations; candidate++) {
+                int expectation = candidateExpectations[candidate];
+                if (matches(expectation, event, literalAutomaton != null)) {
+                    recordMatch(expectation, position);
+                }
+            }
+        }
+    }
+
+    // chunks only share immutable state, so each of them checks all expectations without cursors, automaton or adapting matcher order
+    private void countMatchesInParallel(EventPositions positions) {
+        int numberOfChunks = (positions.size() + PARALLEL_CHUNK_SIZE - 1) / PARALLEL_CHUNK_SIZE;
+        LogEventMatcher[][] logEventMatchers = new LogEventMatcher[logExpectations.length][];
+        for (int expectation = 0; expectation < logExpectations.length; expectation++) {
+            logEventMatchers[expectation] = matcherOrders[expectation].snapshot();
+        }
+        List<ChunkMatches> matchesOfChunks = IntStream.range(0, numberOfChunks).parallel()
+                .mapToObj(chunk -> countMatchesInChunk(positions, chunk * PARALLEL_CHUNK_SIZE, Math.min((chunk + 1) * PARALLEL_CHUNK_SIZE, positions.size()),
+                        logEventMatchers))
+                .toList();
+        // chunks are in order, so the first match is in the first chunk with a match and the last one in the last
+        for (ChunkMatches chunkMatches : matchesOfChunks) {
+            for (int expectation = 0; expectation < logExpectations.length; expectation++) {
+                if (chunkMatches.numberOfMatches[expectation] > 0) {
+                    if (numberOfMatches[expectation] == 0) {
+                        firstMatch[expectation] = chunkMatches.firstMatch[expectation];
+                    }
+                    lastMatch[expectation] = chunkMatches.lastMatch[expectation];
+                    numberOfMatches[expectation] += chunkMatches.numberOfMatches[expectation];
+                }
+            }
+        }
+    }
+
+    private ChunkMatches countMatchesInChunk(EventPositions positions, int from, int to, LogEventMatcher[][] logEventMatchers) {
+        ChunkMatches chunkMatches = new ChunkMatches(new int[logExpectations.length], new int[logExpectations.length], new int[logExpectations.length]);
+        for (int i = from; i < to; i++) {
+            int position = positions.get(i);
+            LoggedEvent event = capturingAppender.loggedEvents.get(position);
+            for (int expectation = 0; expectation < logExpectations.length; expectation++) {
+                if (candidatePositions[expectation].contains(position) &&
+                        matchesWithoutMatchers(expectation, logExpectations[expectation].messagePattern, event, false) &&
+                        LogAsserter.allMatch(event, logEventMatchers[expectation])) {
+                    if (chunkMatches.numberOfMatches[expectation] == 0) {
+                        chunkMatches.firstMatch[expectation] = position;
+                    }
+                    chunkMatches.lastMatch[expectation] = position;
+                    chunkMatches.numberOfMatches[expectation]++;
+                }
+            }
+        }
+        return chunkMatches;
+    }
+
+    /*
+     * finds the first match of each expectation after the match of the previous one. Returns how many expectations have been
+     * matched in order, with firstMatch holding their positions.
+     */
+    int matchInOrder() {
+        EventPositions positions = startPass();
+        int expectation = 0;
+        for (int i = 0; i < positions.size() && expectation < logExpectations.length; i++) {
+            int position = positions.get(i);
+            if (isCandidate(expectation, position) && matches(expectation, capturingAppender.loggedEvents.get(position), false)) {
+                recordMatch(expectation, position);
+                expectation++;
+            }
+        }
+        return expectation;
+    }
+
+    /*
+     * assigns each event to the first expectation in the batch that matches it and has no event yet. Returns true if each
+     * expectation got an event, which firstMatch holds.
+     */
+    boolean assignFirstFreeMatches() {
+        EventPositions positions = startPass();
+        int numberOfAssignedExpectations = 0;
+        for (int i = 0; i < positions.size() && numberOfAssignedExpectations < logExpectations.length; i++) {
+            int position = positions.get(i);
+            LoggedEvent event = capturingAppender.loggedEvents.get(position);
+            findCandidateExpectations(position, event);
+            for (int candidate = 0; candidate < numberOfCandidateExpectations; candidate++) {
+                int expectation = candidateExpectations[candidate];
+                if (numberOfMatches[expectation] == 0 && matches(expectation, event, literalAutomaton != null)) {
+                    recordMatch(expectation, position);
+                    numberOfAssignedExpectations++;
+                    break;
+                }
+            }
+        }
+        return numberOfAssignedExpectations == logExpectations.length;
+    }
+
+    /*
+     * positions of all matches of each expectation
+     */
+    int[][] findAllMatches() {
+        int[][] matches = new int[logExpectations.length][];
+        for (int expectation = 0; expectation < logExpectations.length; expectation++) {
+            matches[expectation] = new int[candidatePositions[expectation].size()];
+        }
+        EventPositions positions = startPass();
+        for (int i = 0; i < positions.size(); i++) {
+            int position = positions.get(i);
+            LoggedEvent event = capturingAppender.loggedEvents.get(position);
+            findCandidateExpectations(position, event);
+            for (int candidate = 0; candidate < numberOfCandidateExpectations; candidate++) {
+                int expectation = candidateExpectations[candidate];
+                if (matches(expectation, event, literalAutomaton != null)) {
+                    matches[expectation][numberOfMatches[expectation]] = position;
+                    recordMatch(expectation, position);
+                }
+            }
+        }
+        for (int expectation = 0; expectation < logExpectations.length; expectation++) {
+            matches[expectation] = Arrays.copyOf(matches[expectation], numberOfMatches[expectation]);
+        }
+        return matches;
+    }
+
+    // resets the state of the previous pass and returns the positions to visit
+    private EventPositions startPass() {
+        Arrays.fill(candidateCursors, 0);
+        Arrays.fill(numberOfMatches, 0);
+        Arrays.fill(firstMatch, NO_MATCH);
+        Arrays.fill(lastMatch, NO_MATCH);
+        if (candidatePositions.length == 1) {
+            return candidatePositions[0];
+        }
+        // expectations with the same level share their candidates, which only need to be merged once
+        List<EventPositions> distinctCandidatePositions = new ArrayList<>();
+        int numberOfCandidates = 0;
+        for (EventPositions candidates : candidatePositions) {
+            if (distinctCandidatePositions.stream().noneMatch(candidates::isSameAs)) {
+                distinctCandidatePositions.add(candidates);
+                numberOfCandidates += candidates.size();
+            }
+        }
+        // merging would cost more than visiting each event, and expectations skip the events that are not their candidates anyway
+        if (numberOfCandidates >= capturingAppender.loggedEvents.size() - startIndex) {
+            return EventPositions.range(startIndex, capturingAppender.loggedEvents.size());
+        }
+        return EventPositions.union(distinctCandidatePositions);
+    }
+
+    /*
+     * collects the expectations that the event at this position may match in candidateExpectations, in ascending order. With
+     * the automaton, these are only the expectations whose required text the message contains and those without one.
+     */
+    private void findCandidateExpectations(int position, LoggedEvent event) {
+        numberOfCandidateExpectations = 0;
+        if (literalAutomaton == null) {
+            for (int expectation = 0; expectation < logExpectations.length; expectation++) {
+                if (isCandidate(expectation, position)) {
+                    candidateExpectations[numberOfCandidateExpectations++] = expectation;
+                }
+            }
+            return;
+        }
+        for (int expectation : expectationsWithoutLiteral) {
+            addCandidateExpectation(expectation, position);
+        }
+        int numberOfFoundLiterals = literalAutomaton.findLiteralsIn(event.getFormattedMessage());
+        for (int i = 0; i < numberOfFoundLiterals; i++) {
+            for (int expectation : expectationsOfLiteral[literalAutomaton.foundLiteral(i)]) {
+                addCandidateExpectation(expectation, position);
+            }
+        }
+        // assigning first free matches relies on the order of the expectations
+        Arrays.sort(candidateExpectations, 0, numberOfCandidateExpectations);
+    }
+
+    private void addCandidateExpectation(int expectation, int position) {
+        if (candidatePositions[expectation].contains(position)) {
+            candidateExpectations[numberOfCandidateExpectations++] = expectation;
+        }
+    }
+
+    // positions are visited in ascending order, so each expectation's candidates are walked along with them
+    private boolean isCandidate(int expectation, int position) {
+        EventPositions candidates = candidatePositions[expectation];
+        int cursor = candidateCursors[expectation];
+        while (cursor < candidates.size() && candidates.get(cursor) < position) {
+            cursor++;
+        }
+        candidateCursors[expectation] = cursor;
+        return cursor < candidates.size() && candidates.get(cursor) == position;
+    }
+
+    private boolean matches(int expectation, LoggedEvent event, boolean requiredLiteralFound) {
+        return matchesWithoutMatchers(expectation, messagePatterns[expectation], event, requiredLiteralFound) && matcherOrders[expectation].matches(event);
+    }
+
+    // parallel chunks pass the shared message pattern, since the one bound to this batch's scan must stay on one thread
+    private boolean matchesWithoutMatchers(int expectation, TextPattern messagePattern, LoggedEvent event, boolean requiredLiteralFound) {
+        return LogAsserter.eventMatchesLevel(event, expectedLevels[expectation]) && messageMatches(messagePattern, event, requiredLiteralFound);
+    }
+
+    // a literal pattern is its own required text, so finding that is enough
+    private static boolean messageMatches(TextPattern messagePattern, LoggedEvent event, boolean requiredLiteralFound) {
+        return requiredLiteralFound && messagePattern instanceof TextPattern.Literal || messagePattern.isFoundIn(event.getFormattedMessage());
+    }
+
+    private void recordMatch(int expectation, int position) {
+        if (numberOfMatches[expectation] == 0) {
+            firstMatch[expectation] = position;
+        }
+        lastMatch[expectation] = position;
+        numberOfMatches[expectation]++;
+    }
+
+    private record ChunkMatches(int[] numberOfMatches, int[] firstMatch, int[] lastMatch) {
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
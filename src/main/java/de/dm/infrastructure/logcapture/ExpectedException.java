@@ -1,6 +1,8 @@
 package de.dm.infrastructure.logcapture;
 
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 import static java.lang.String.format;
@@ -11,15 +13,19 @@ import static java.lang.System.lineSeparator;
  */
 @SuppressWarnings("squid:S2166") //naming this Exception is OK
 public final class ExpectedException implements LogEventMatcher {
+    private static final int MAX_CACHED_TYPES = 1_024;
+
     private final Optional<String> expectedMessageRegex;
-    private final Optional<Pattern> expectedMessage;
+    private final Optional<TextPattern> expectedMessage;
     private final Optional<Class<? extends Exception>> expectedType;
     private final Optional<ExpectedException> expectedCause;
+    // whether a logged type is assignable to the expected type, so that each logged type is only resolved once
+    private final Map<String, Boolean> typeMatchesByLoggedType = new ConcurrentHashMap<>();
 
     private ExpectedException(Optional<String> expectedMessageRegex, Optional<Class<? extends Exception>> expectedType, Optional<ExpectedException> expectedCause) {
         if (expectedMessageRegex.isPresent()) {
             this.expectedMessageRegex = expectedMessageRegex;
-            expectedMessage = Optional.of(Pattern.compile(".*" + expectedMessageRegex.get() + ".*", Pattern.DOTALL + Pattern.MULTILINE));
+            expectedMessage = Optional.of(PatternCache.pattern(expectedMessageRegex.get(), Pattern.DOTALL + Pattern.MULTILINE));
         } else {
             this.expectedMessageRegex = Optional.empty();
             expectedMessage = Optional.empty();
@@ -40,7 +46,8 @@ public final class ExpectedException implements LogEventMatcher {
 
     @Override
     public boolean matches(LoggedEvent loggedEvent) {
-        return exceptionMatches(loggedEvent.getLoggedException(), Optional.of(this));
+        Optional<LoggedEvent.LoggedException> loggedException = loggedEvent.getLoggedException();
+        return loggedException.isPresent() && exceptionMatches(loggedException.get());
     }
 
     @Override
@@ -55,6 +62,11 @@ public final class ExpectedException implements LogEventMatcher {
         return format("Exception: %s", this);
     }
 
+    @Override
+    public int getMatchingCost() {
+        return MatchingCosts.EXCEPTION;
+    }
+
     private static String loggedExceptionToString(Optional<LoggedEvent.LoggedException> optionalException) {
         if (optionalException.isEmpty()) {
             return "(null)";
@@ -74,36 +86,41 @@ public final class ExpectedException implements LogEventMatcher {
         return "Exception";
     }
 
-    private static boolean exceptionMatches(Optional<LoggedEvent.LoggedException> optionalActualException, Optional<ExpectedException> optionalExpectedException) {
-        if (optionalActualException.isEmpty() && optionalExpectedException.isPresent()) {
-            return false;
-        }
-        if (optionalExpectedException.isEmpty()) {
-            return true;
-        }
-
-        ExpectedException expectedException = optionalExpectedException.get();
-        LoggedEvent.LoggedException loggedException = optionalActualException.get();
+    private boolean exceptionMatches(LoggedEvent.LoggedException loggedException) {
+        return expectedMessageMatches(loggedException) &&
+                expectedTypeMatches(loggedException.getType()) &&
+                expectedCauseMatches(loggedException.getCause());
+    }
 
-        return expectedMessageMatches(loggedException, expectedException) &&
-                expectedTypeMatches(loggedException, expectedException) &&
-                exceptionMatches(loggedException.getCause(), expectedException.expectedCause);
+    private boolean expectedMessageMatches(LoggedEvent.LoggedException loggedException) {
+        return expectedMessage.isEmpty() || expectedMessage.get().isFoundIn(loggedException.getMessage());
     }
 
-    private static boolean expectedMessageMatches(LoggedEvent.LoggedException loggedException, ExpectedException expectedException) {
-        return expectedException.expectedMessage.isEmpty() ||
-                expectedException.expectedMessage.get().matcher(loggedException.getMessage()).matches();
+    private boolean expectedCauseMatches(Optional<LoggedEvent.LoggedException> loggedCause) {
+        return expectedCause.isEmpty() || loggedCause.isPresent() && expectedCause.get().exceptionMatches(loggedCause.get());
     }
 
-    private static boolean expectedTypeMatches(LoggedEvent.LoggedException loggedException, ExpectedException expectedException) {
-        if (expectedException.expectedType.isEmpty()) {
+    // resolving a type is expensive, especially if it cannot be found, and captures tend to contain the same types over and over
+    private boolean expectedTypeMatches(String loggedType) {
+        if (expectedType.isEmpty()) {
             return true;
         }
+        Boolean typeMatches = typeMatchesByLoggedType.get(loggedType);
+        if (typeMatches == null) {
+            typeMatches = resolvedTypeMatches(loggedType);
+            if (typeMatchesByLoggedType.size() < MAX_CACHED_TYPES) {
+                typeMatchesByLoggedType.put(loggedType, typeMatches);
+            }
+        }
+        return typeMatches;
+    }
+
+    private boolean resolvedTypeMatches(String loggedType) {
         try {
-            Class<?> actualType = Class.forName(loggedException.getType());
-            return expectedException.expectedType.get().isAssignableFrom(actualType);
+            Class<?> actualType = Class.forName(loggedType);
+            return expectedType.get().isAssignableFrom(actualType);
         } catch (ClassNotFoundException e) {
-            return expectedException.expectedType.get().getCanonicalName().equals(loggedException.getType());
+            return expectedType.get().getCanonicalName().equals(loggedType);
         }
     }
 
@@ -1,5 +1,8 @@
 package de.dm.infrastructure.logcapture;
 
+import org.slf4j.event.KeyValuePair;
+
+import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
@@ -10,7 +13,7 @@ import static java.lang.System.lineSeparator;
  * define expected key-value pair to be attached to a log message
  */
 public final class ExpectedKeyValue implements LogEventMatcher {
-    private final String key;
+    final String key;
     private final Object value;
 
     private ExpectedKeyValue(String key, Object value) {
@@ -23,24 +26,38 @@ public final class ExpectedKeyValue implements LogEventMatcher {
 
     @Override
     public boolean matches(LoggedEvent loggedEvent) {
-        return loggedEvent.getKeyValuePairs() != null &&
-                loggedEvent.getKeyValuePairs().stream()
-                        .anyMatch(pair -> key.equals(pair.key) && (
-                                Objects.equals(value, pair.value) ||
-                                        areEqualAsNumbers(value, pair.value)
-                        ));
+        List<KeyValuePair> keyValuePairs = loggedEvent.getKeyValuePairs();
+        if (keyValuePairs == null) {
+            return false;
+        }
+        for (int i = 0; i < keyValuePairs.size(); i++) {
+            KeyValuePair pair = keyValuePairs.get(i);
+            if (key.equals(pair.key) && (Objects.equals(value, pair.value) || areEqualAsNumbers(value, pair.value))) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /*
      * this is only done for Numbers because
      * 1. toString() should not be expensive for these
      * 2. when Logging 2L can be considered equal to 2, for example, but maybe not to 2.0
+     *
+     * Integral numbers are equal as text exactly if their long values are equal, which is compared without creating Strings.
      */
     private boolean areEqualAsNumbers(Object expectedValue, Object actualValue) {
+        if (isIntegral(expectedValue) && isIntegral(actualValue)) {
+            return ((Number) expectedValue).longValue() == ((Number) actualValue).longValue();
+        }
         return expectedValue instanceof Number && actualValue instanceof Number &&
                 expectedValue.toString().equals(actualValue.toString());
     }
 
+    private static boolean isIntegral(Object value) {
+        return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+    }
+
     @Override
     public String getNonMatchingErrorMessage(LoggedEvent loggedEvent) {
         String expected = format("  expected key-value pair (%s, %s)", key, value) + lineSeparator();
@@ -60,6 +77,11 @@ public final class ExpectedKeyValue implements LogEventMatcher {
         return format("key-value pair (%s, %s)", key, value);
     }
 
+    @Override
+    public int getMatchingCost() {
+        return MatchingCosts.TEXT;
+    }
+
     /**
      * use this in a log expectation to verify that something has been logged with a certain key-value pair
      *
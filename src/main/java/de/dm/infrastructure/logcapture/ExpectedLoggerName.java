@@ -1,25 +1,27 @@
 package de.dm.infrastructure.logcapture;
 
-import java.util.regex.Pattern;
-
 import static java.lang.String.format;
 import static java.lang.System.lineSeparator;
 
 /**
  * define expected logger from which a message is supposed to be logged
  */
-public final class ExpectedLoggerName implements LogEventMatcher {
-    private final Pattern expectedName;
+public final class ExpectedLoggerName implements TextSearchingMatcher {
+    final TextPattern expectedName;
     private final String inputRegex;
 
     private ExpectedLoggerName(String loggerNameRegex) {
+        this(loggerNameRegex, PatternCache.pattern(loggerNameRegex, 0));
+    }
+
+    private ExpectedLoggerName(String loggerNameRegex, TextPattern expectedName) {
         inputRegex = loggerNameRegex;
-        expectedName = Pattern.compile(".*" + loggerNameRegex + ".*");
+        this.expectedName = expectedName;
     }
 
     @Override
     public boolean matches(LoggedEvent loggedEvent) {
-        return expectedName.matcher(loggedEvent.getLoggerName()).matches();
+        return expectedName.isFoundIn(loggedEvent.getLoggerName());
     }
 
     @Override
@@ -39,6 +41,16 @@ public final class ExpectedLoggerName implements LogEventMatcher {
         return format("logger name (regex): \"%s\"", inputRegex);
     }
 
+    @Override
+    public int getMatchingCost() {
+        return expectedName.matchingCost();
+    }
+
+    @Override
+    public LogEventMatcher forScan() {
+        return new ExpectedLoggerName(inputRegex, expectedName.forScan());
+    }
+
     /**
      * use this in a log expectation to verify that something has been logged from a certain logger
      *
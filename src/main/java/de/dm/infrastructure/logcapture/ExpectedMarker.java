@@ -1,5 +1,9 @@
 package de.dm.infrastructure.logcapture;
 
+import org.slf4j.Marker;
+
+import java.util.List;
+
 import static java.lang.String.format;
 import static java.lang.System.lineSeparator;
 
@@ -7,7 +11,7 @@ import static java.lang.System.lineSeparator;
  * define expected markers on log messages with this
  */
 public final class ExpectedMarker implements LogEventMatcher {
-    private final String expectedName;
+    final String expectedName;
 
     private ExpectedMarker(String expectedName) {
         this.expectedName = expectedName;
@@ -15,7 +19,16 @@ public final class ExpectedMarker implements LogEventMatcher {
 
     @Override
     public boolean matches(LoggedEvent loggedEvent) {
-        return loggedEvent.getMarkers() != null && loggedEvent.getMarkers().stream().anyMatch(marker -> marker.contains(expectedName));
+        List<Marker> markers = loggedEvent.getMarkers();
+        if (markers == null) {
+            return false;
+        }
+        for (int i = 0; i < markers.size(); i++) {
+            if (markers.get(i).contains(expectedName)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
@@ -37,6 +50,11 @@ public final class ExpectedMarker implements LogEventMatcher {
         return format("marker name: \"%s\"", expectedName);
     }
 
+    @Override
+    public int getMatchingCost() {
+        return MatchingCosts.TEXT;
+    }
+
     /**
      * use this in a log expectation to verify that something has been logged with a certain marker
      *
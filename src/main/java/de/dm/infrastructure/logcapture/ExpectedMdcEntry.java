@@ -1,6 +1,7 @@
 package de.dm.infrastructure.logcapture;
 
 import java.util.Map;
+import java.util.Optional;
 import java.util.regex.Pattern;
 
 import static java.lang.String.format;
@@ -9,9 +10,9 @@ import static java.lang.System.lineSeparator;
 /**
  * define expected MDC entries with this
  */
-public final class ExpectedMdcEntry implements LogEventMatcher {
+public final class ExpectedMdcEntry implements TextSearchingMatcher {
 
-    private final String key;
+    final String key;
     private final MdcMatcher matcher;
 
     private ExpectedMdcEntry(String key, MdcMatcher matcher) {
@@ -52,6 +53,10 @@ public final class ExpectedMdcEntry implements LogEventMatcher {
         return matcher.matches(loggedEvent.getMdcData().get(key));
     }
 
+    Optional<TextPattern> getValuePattern() {
+        return matcher instanceof PatternMatcher patternMatcher ? Optional.of(patternMatcher.pattern) : Optional.empty();
+    }
+
     @Override
     public String getNonMatchingErrorMessage(LoggedEvent loggedEvent) {
         StringBuilder assertionMessage = new StringBuilder(format("  captured message: \"%s\"", loggedEvent.getFormattedMessage()));
@@ -59,7 +64,7 @@ public final class ExpectedMdcEntry implements LogEventMatcher {
         assertionMessage.append(format("  expected MDC key: %s", key));
         if (matcher instanceof PatternMatcher patternMatcher) {
             assertionMessage.append(lineSeparator());
-            assertionMessage.append(format("  expected MDC value: \"%s\"", patternMatcher.pattern));
+            assertionMessage.append(format("  expected MDC value: \"%s\"", patternMatcher.description));
         }
         assertionMessage.append(lineSeparator());
         assertionMessage.append("  captured MDC values:");
@@ -80,17 +85,38 @@ public final class ExpectedMdcEntry implements LogEventMatcher {
         return format("MDCValue with key: \"%s\"", key);
     }
 
+    @Override
+    public int getMatchingCost() {
+        return getValuePattern().map(TextPattern::matchingCost).orElse(MatchingCosts.UNKNOWN);
+    }
+
+    @Override
+    public LogEventMatcher forScan() {
+        return matcher instanceof PatternMatcher patternMatcher ? new ExpectedMdcEntry(key, patternMatcher.forScan()) : this;
+    }
+
     private static class PatternMatcher implements MdcMatcher {
 
-        private final Pattern pattern;
+        private final TextPattern pattern;
+        // described as the padded regex that used to be matched, which is what find() does
+        private final String description;
 
         PatternMatcher(String valueRegex) {
-            pattern = Pattern.compile(".*" + valueRegex + ".*", Pattern.DOTALL + Pattern.MULTILINE);
+            this(PatternCache.pattern(valueRegex, Pattern.DOTALL + Pattern.MULTILINE), ".*" + valueRegex + ".*");
+        }
+
+        private PatternMatcher(TextPattern pattern, String description) {
+            this.pattern = pattern;
+            this.description = description;
         }
 
         @Override
         public boolean matches(String mdcValue) {
-            return pattern.matcher(mdcValue).matches();
+            return pattern.isFoundIn(mdcValue);
+        }
+
+        private PatternMatcher forScan() {
+            return new PatternMatcher(pattern.forScan(), description);
         }
     }
 
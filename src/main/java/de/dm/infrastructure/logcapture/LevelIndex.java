@@ -0,0 +1,39 @@
+package de.dm.infrastructure.logcapture;
+
+import ch.qos.logback.classic.Level;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * positions of captured events by level, so that assertions for rare levels (like WARN or ERROR in a capture full of DEBUG
+ * messages) only look at the events with the expected level.
+ * <p>
+ * To keep capturing cheap, the index is not updated when events are captured. Instead, each query indexes the events that
+ * have been captured since the previous one, so every event is only indexed once. This requires captured events to keep
+ * their positions, which is not the case for captures that drop the oldest events.
+ */
+final class LevelIndex {
+    private final List<LoggedEvent> loggedEvents;
+    private final Map<Level, PositionList> positionsByLevel = new HashMap<>();
+    private int numberOfIndexedEvents = 0;
+
+    LevelIndex(List<LoggedEvent> loggedEvents) {
+        this.loggedEvents = loggedEvents;
+    }
+
+    synchronized EventPositions positions(Level level) {
+        indexNewEvents();
+        PositionList positions = positionsByLevel.get(level);
+        return positions == null ? EventPositions.range(0, 0) : positions.toEventPositions();
+    }
+
+    private void indexNewEvents() {
+        int numberOfEvents = loggedEvents.size();
+        for (int position = numberOfIndexedEvents; position < numberOfEvents; position++) {
+            positionsByLevel.computeIfAbsent(loggedEvents.get(position).getLevel(), level -> new PositionList()).add(position);
+        }
+        numberOfIndexedEvents = numberOfEvents;
+    }
+}
@@ -0,0 +1,162 @@
+package de.dm.infrastructure.logcapture;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Aho-Corasick automaton that finds all of a set of literals in a text with a single pass over it, so that a batch of
+ * expectations reads each log message once instead of once per expectation.
+ * <p>
+ * The root has a table for Latin-1 characters, since most characters of a log message lead back to it. Other transitions
+ * are kept in sorted arrays per state, and states without a matching transition fall back along their failure links.
+ */
+final class LiteralAutomaton {
+    private static final int ROOT = 0;
+    private static final int[] NO_LITERALS = {};
+    private static final int ROOT_TABLE_SIZE = 256;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int[] rootTransitions = new int[ROOT_TABLE_SIZE];
+    private char[][] characters = new char[INITIAL_CAPACITY][];
+    private int[][] targets = new int[INITIAL_CAPACITY][];
+    private int[][] literalsEndingAt = new int[INITIAL_CAPACITY][];
+    private int numberOfStates = 0;
+    private int[] failureLinks;
+    private final int[] foundStamps;
+    private final int[] foundLiterals;
+    private int stamp = 0;
+
+    LiteralAutomaton(List<String> literals) {
+        foundStamps = new int[literals.size()];
+        foundLiterals = new int[literals.size()];
+        addState();
+        for (int literal = 0; literal < literals.size(); literal++) {
+            addLiteral(literals.get(literal), literal);
+        }
+        linkFailures();
+    }
+
+    /*
+     * finds the literals that occur in the text. Returns how many different literals have been found, which are then
+     * available via foundLiteral() until the next search.
+     */
+    int findLiteralsIn(String text) {
+        stamp++;
+        int numberOfFoundLiterals = 0;
+        int state = ROOT;
+        for (int i = 0; i < text.length(); i++) {
+            state = next(state, text.charAt(i));
+            for (int literal : literalsEndingAt[state]) {
+                if (foundStamps[literal] != stamp) {
+                    foundStamps[literal] = stamp;
+                    foundLiterals[numberOfFoundLiterals++] = literal;
+                }
+            }
+        }
+        return numberOfFoundLiterals;
+    }
+
+    int foundLiteral(int index) {
+        return foundLiterals[index];
+    }
+
+    private int next(int state, char character) {
+        while (state != ROOT) {
+            int target = transition(state, character);
+            if (target != ROOT) {
+                return target;
+            }
+            state = failureLinks[state];
+        }
+        return transition(ROOT, character);
+    }
+
+    // returns ROOT if there is no transition, since no transition leads back to the root
+    private int transition(int state, char character) {
+        if (state == ROOT && character < ROOT_TABLE_SIZE) {
+            return rootTransitions[character];
+        }
+        int index = Arrays.binarySearch(characters[state], character);
+        return index >= 0 ? targets[state][index] : ROOT;
+    }
+
+    private void addLiteral(String literal, int literalId) {
+        int state = ROOT;
+        for (int i = 0; i < literal.length(); i++) {
+            char character = literal.charAt(i);
+            int target = transition(state, character);
+            if (target == ROOT) {
+                target = addState();
+                addTransition(state, character, target);
+            }
+            state = target;
+        }
+        literalsEndingAt[state] = append(literalsEndingAt[state], literalId);
+    }
+
+    private int addState() {
+        if (numberOfStates == characters.length) {
+            characters = Arrays.copyOf(characters, numberOfStates * 2);
+            targets = Arrays.copyOf(targets, numberOfStates * 2);
+            literalsEndingAt = Arrays.copyOf(literalsEndingAt, numberOfStates * 2);
+        }
+        characters[numberOfStates] = new char[0];
+        targets[numberOfStates] = new int[0];
+        literalsEndingAt[numberOfStates] = NO_LITERALS;
+        return numberOfStates++;
+    }
+
+    private void addTransition(int state, char character, int target) {
+        if (state == ROOT && character < ROOT_TABLE_SIZE) {
+            rootTransitions[character] = target;
+            return;
+        }
+        char[] stateCharacters = characters[state];
+        int[] stateTargets = targets[state];
+        int insertionPoint = -Arrays.binarySearch(stateCharacters, character) - 1;
+        char[] newCharacters = new char[stateCharacters.length + 1];
+        int[] newTargets = new int[stateTargets.length + 1];
+        System.arraycopy(stateCharacters, 0, newCharacters, 0, insertionPoint);
+        System.arraycopy(stateTargets, 0, newTargets, 0, insertionPoint);
+        newCharacters[insertionPoint] = character;
+        newTargets[insertionPoint] = target;
+        System.arraycopy(stateCharacters, insertionPoint, newCharacters, insertionPoint + 1, stateCharacters.length - insertionPoint);
+        System.arraycopy(stateTargets, insertionPoint, newTargets, insertionPoint + 1, stateTargets.length - insertionPoint);
+        characters[state] = newCharacters;
+        targets[state] = newTargets;
+    }
+
+    // breadth-first, so that the failure link of each state is known before its children are linked
+    private void linkFailures() {
+        failureLinks = new int[numberOfStates];
+        int[] queue = new int[numberOfStates];
+        int head = 0;
+        int tail = 0;
+        for (int target : rootTransitions) {
+            if (target != ROOT) {
+                queue[tail++] = target;
+            }
+        }
+        for (int target : targets[ROOT]) {
+            queue[tail++] = target;
+        }
+        while (head < tail) {
+            int state = queue[head++];
+            for (int i = 0; i < characters[state].length; i++) {
+                int child = targets[state][i];
+                int failureLink = next(failureLinks[state], characters[state][i]);
+                failureLinks[child] = failureLink;
+                for (int literal : literalsEndingAt[failureLink]) {
+                    literalsEndingAt[child] = append(literalsEndingAt[child], literal);
+                }
+                queue[tail++] = child;
+            }
+        }
+    }
+
+    private static int[] append(int[] array, int value) {
+        int[] result = Arrays.copyOf(array, array.length + 1);
+        result[array.length] = value;
+        return result;
+    }
+}
@@ -3,13 +3,12 @@ package de.dm.infrastructure.logcapture;
 import ch.qos.logback.classic.Level;
 import lombok.RequiredArgsConstructor;
 
-import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.regex.Pattern;
+import java.util.OptionalInt;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static java.lang.String.format;
 import static java.lang.System.lineSeparator;
@@ -20,20 +19,30 @@ import static java.lang.System.lineSeparator;
 public class LogAsserter {
     private final CapturingAppender capturingAppender;
     private final List<LogEventMatcher> globalLogEventMatchers;
+    private final long numberOfSkippedEvents;
 
     LogAsserter(CapturingAppender capturingAppender, List<LogEventMatcher> globalLogEventMatchers) {
+        this(capturingAppender, globalLogEventMatchers, 0);
+    }
+
+    /*
+     * only asserts the events that have been captured after the first numberOfSkippedEvents
+     */
+    LogAsserter(CapturingAppender capturingAppender, List<LogEventMatcher> globalLogEventMatchers, long numberOfSkippedEvents) {
         this.capturingAppender = capturingAppender;
         this.globalLogEventMatchers = globalLogEventMatchers;
+        this.numberOfSkippedEvents = numberOfSkippedEvents;
     }
 
     /**
-     * assert that multiple log messages have been logged in any order
+     * assert that multiple log messages have been logged in any order. Each expectation must match a different log message.
+     * If a log message matches several expectations, it is assigned so that all expectations are met if possible.
      *
      * @param logExpectations descriptions of expected log messages
      *
      * @return asserter that can be used to check if anything else has been logged
      *
-     * @throws AssertionError if any of the expected log message has not been logged or matching is imprecise (in case multiple expectations match the same message)
+     * @throws AssertionError if any of the expected log message has not been logged or matching is imprecise (in case multiple expectations can only match the same message)
      * @throws IllegalArgumentException if less than two LogExpectations are provided
      */
     public NothingElseLoggedAsserter assertLoggedInAnyOrder(LogExpectation... logExpectations) {
@@ -41,20 +50,12 @@ public class LogAsserter {
             throw new IllegalArgumentException("at least 2 LogExpectations are required for assertLoggedInAnyOrder(). Found " +
                     (logExpectations.length == 1 ? logExpectations[0] : "none"));
         }
+        assertCaptureIsUsable();
 
-        Map<Integer, LogExpectation> matches = new HashMap<>();
-
-        for (LogExpectation assertion : logExpectations) {
-            LastCapturedLogEvent lastCapturedLogEvent = assertCapturedNext(assertion.level, assertion.regex, Optional.empty(), assertion.logEventMatchers);
-            if (matches.containsKey(lastCapturedLogEvent.lastAssertedLogMessageIndex)) {
-                LogExpectation previousMatch = matches.get(lastCapturedLogEvent.lastAssertedLogMessageIndex);
-                throw new AssertionError(format("""
-                                Imprecise matching: Two log expectations have matched the same message. Use more precise matching or in-order matching.
-                                -- First match:%s-- Second match:%s""",
-                        getDescriptionForExpectedMessageWithAdditionalMatchers(previousMatch.level, previousMatch.regex, previousMatch.logEventMatchers),
-                        getDescriptionForExpectedMessageWithAdditionalMatchers(assertion.level, assertion.regex, assertion.logEventMatchers)));
-            }
-            matches.put(lastCapturedLogEvent.lastAssertedLogMessageIndex, assertion);
+        ExpectationBatch expectationBatch = new ExpectationBatch(capturingAppender, firstPosition(), globalLogEventMatchers, logExpectations);
+        // cheap attempt that succeeds unless an expectation only matches messages that earlier expectations have taken
+        if (!expectationBatch.assignFirstFreeMatches()) {
+            assignAllMatches(logExpectations, expectationBatch.findAllMatches());
         }
 
         return new NothingElseLoggedAsserter(logExpectations.length);
@@ -70,7 +71,8 @@ public class LogAsserter {
      * @throws AssertionError if the expected log message has not been logged
      */
     public NothingElseLoggedAsserter assertLogged(LogExpectation logExpectation) {
-        assertCapturedNext(logExpectation.level, logExpectation.regex, Optional.empty(), logExpectation.logEventMatchers);
+        assertCaptureIsUsable();
+        assertCapturedNext(logExpectation, Optional.empty());
         return new NothingElseLoggedAsserter(1);
     }
 
@@ -85,29 +87,34 @@ public class LogAsserter {
      * @throws AssertionError if the expected log message has not been logged as often as expected
      */
     public NothingElseLoggedAsserter assertLogged(ExpectedTimes expectedTimes, LogExpectation logExpectation) {
+        assertCaptureIsUsable();
 
-        var matches = getNumberOfMatches(logExpectation.level, logExpectation.regex, logExpectation.logEventMatchers);
+        ExpectationBatch expectationBatch = new ExpectationBatch(capturingAppender, firstPosition(), List.of(), logExpectation);
+        expectationBatch.countMatches();
+        int completeMatches = expectationBatch.numberOfMatches[0];
         var comparisonStrategy = expectedTimes.getComparisonStrategy();
         var referenceValue = expectedTimes.getReferenceValue();
 
         boolean failAssertion = switch (comparisonStrategy) {
-            case EQUAL -> matches.completeMatches != referenceValue;
-            case AT_LEAST -> matches.completeMatches < referenceValue;
-            case AT_MOST -> matches.completeMatches > referenceValue;
+            case EQUAL -> completeMatches != referenceValue;
+            case AT_LEAST -> completeMatches < referenceValue;
+            case AT_MOST -> completeMatches > referenceValue;
         };
 
         if (failAssertion) {
-            var additionalMatchersHint = matches.matchesWithoutAdditionalMatchers == matches.completeMatches
+            int matchesWithoutAdditionalMatchers = countMatchesWithoutAdditionalMatchers(logExpectation);
+            var additionalMatchersHint = matchesWithoutAdditionalMatchers == completeMatches
                     ? ""
-                    : " (%s without additional matchers)".formatted(matches.matchesWithoutAdditionalMatchers);
+                    : " (%s without additional matchers)".formatted(matchesWithoutAdditionalMatchers);
             throw new AssertionError("""
                     Expected log message has not occurred %s %s time(s)
-                    actual occurrences: %s%s%s""".formatted(
+                    actual occurrences: %s%s%s%s""".formatted(
                     comparisonStrategy.strategyName,
                     referenceValue,
-                    matches.completeMatches,
+                    completeMatches,
                     additionalMatchersHint,
-                    getDescriptionForExpectedMessageWithAdditionalMatchers(logExpectation.level, logExpectation.regex, logExpectation.logEventMatchers)));
+                    getDescriptionForExpectedMessageWithAdditionalMatchers(logExpectation.level, logExpectation.regex, logExpectation.logEventMatchers),
+                    capturingAppender.getDroppedEventsHint()));
         }
         return new NothingElseLoggedAsserter(1);
     }
@@ -127,10 +134,16 @@ public class LogAsserter {
             throw new IllegalArgumentException("at least 2 LogExpectations are required for assertLoggedInOrder(). Found " +
                     (logExpectations.length == 1 ? logExpectations[0] : "none"));
         }
-
-        Optional<LastCapturedLogEvent> lastCapturedLogEvent = Optional.empty();
-        for (LogExpectation assertion : logExpectations) {
-            lastCapturedLogEvent = Optional.of(assertCapturedNext(assertion.level, assertion.regex, lastCapturedLogEvent, assertion.logEventMatchers));
+        assertCaptureIsUsable();
+
+        ExpectationBatch expectationBatch = new ExpectationBatch(capturingAppender, firstPosition(), globalLogEventMatchers, logExpectations);
+        int numberOfMatchedExpectations = expectationBatch.matchInOrder();
+        if (numberOfMatchedExpectations < logExpectations.length) {
+            Optional<LastCapturedLogEvent> lastCapturedLogEvent = numberOfMatchedExpectations == 0
+                    ? Optional.empty()
+                    : Optional.of(new LastCapturedLogEvent(expectationBatch.firstMatch[numberOfMatchedExpectations - 1], numberOfMatchedExpectations));
+            // fails, explaining why the expectation has not been met
+            assertCapturedNext(logExpectations[numberOfMatchedExpectations], lastCapturedLogEvent);
         }
 
         return new NothingElseLoggedAsserter(logExpectations.length);
@@ -149,9 +162,16 @@ public class LogAsserter {
         if (logExpectations.length < 1) {
             throw new IllegalArgumentException("at least one LogExpectation is required for assertNotLogged(). Found none");
         }
-
-        for (LogExpectation assertion : logExpectations) {
-            assertNotCaptured(assertion.level, assertion.regex, assertion.logEventMatchers);
+        assertCaptureIsUsable();
+
+        ExpectationBatch expectationBatch = new ExpectationBatch(capturingAppender, firstPosition(), List.of(), logExpectations);
+        expectationBatch.countMatches();
+        for (int expectation = 0; expectation < logExpectations.length; expectation++) {
+            if (expectationBatch.numberOfMatches[expectation] > 0) {
+                LogExpectation logExpectation = logExpectations[expectation];
+                throw new AssertionError(format("Found a log message that should not be logged.%s",
+                        getDescriptionForExpectedMessageWithAdditionalMatchers(logExpectation.level, logExpectation.regex, logExpectation.logEventMatchers)));
+            }
         }
     }
 
@@ -168,7 +188,7 @@ public class LogAsserter {
         private final boolean nothingElseLogged;
 
         private NothingElseLoggedAsserter(int numberOfAssertedLogMessages) {
-            nothingElseLogged = capturingAppender.loggedEvents.size() == numberOfAssertedLogMessages;
+            nothingElseLogged = capturingAppender.getNumberOfCapturedEvents() - numberOfSkippedEvents == numberOfAssertedLogMessages;
         }
 
         /**
@@ -183,75 +203,139 @@ public class LogAsserter {
         }
     }
 
-    private LastCapturedLogEvent assertCapturedNext(Optional<Level> level, Optional<String> regex,
-                                                    Optional<LastCapturedLogEvent> optionalLastCapturedLogEvent,
-                                                    List<LogEventMatcher> localLogEventMatchers) {
+    private int firstPosition() {
+        return capturingAppender.getPositionAfter(numberOfSkippedEvents);
+    }
+
+    private void assertCaptureIsUsable() {
         if (capturingAppender == null) {
             throw new IllegalStateException("capturingAppender is null. " +
                     "Please make sure that either LogCapture is used with a @Rule annotation or that addAppenderAndSetLogLevelToTrace is called manually.");
         }
+        capturingAppender.onlineExpectations.assertNoViolation();
+        if (!capturingAppender.isBuffering()) {
+            throw new IllegalStateException("Log messages are not kept with LogCapture.withoutBuffering(), so they can only be checked with expectNever() and expectWithin().");
+        }
+        capturingAppender.assertCapacityNotExceeded();
+    }
 
-        int startIndex = optionalLastCapturedLogEvent.map(capturedLogEvent -> capturedLogEvent.lastAssertedLogMessageIndex + 1).orElse(0);
+    private LastCapturedLogEvent assertCapturedNext(LogExpectation logExpectation, Optional<LastCapturedLogEvent> optionalLastCapturedLogEvent) {
+        int startIndex = optionalLastCapturedLogEvent.map(capturedLogEvent -> capturedLogEvent.lastAssertedLogMessageIndex + 1).orElseGet(this::firstPosition);
         int numberOfAssertedLogMessages = optionalLastCapturedLogEvent.map(capturedLogEvent -> capturedLogEvent.numberOfAssertedLogMessages + 1).orElse(1);
 
-        LinkedList<LogEventMatcher> logEventMatchers = new LinkedList<>();
-        logEventMatchers.addAll(globalLogEventMatchers);
-        logEventMatchers.addAll(localLogEventMatchers);
+        List<LogEventMatcher> logEventMatchers = new ArrayList<>(globalLogEventMatchers);
+        logEventMatchers.addAll(logExpectation.logEventMatchers);
 
-        Integer foundAtIndex = assertCapturedNext(level, regex, startIndex, logEventMatchers);
+        Integer foundAtIndex = assertCapturedNext(logExpectation, startIndex, logEventMatchers);
 
         return new LastCapturedLogEvent(foundAtIndex, numberOfAssertedLogMessages);
     }
 
-    Integer assertCapturedNext(Optional<Level> level, Optional<String> regex, int startIndex, List<LogEventMatcher> logEventMatchers) {
-        Pattern pattern = Pattern.compile(".*" + regex.orElse("") + ".*", Pattern.DOTALL + Pattern.MULTILINE);
+    private Integer assertCapturedNext(LogExpectation logExpectation, int startIndex, List<LogEventMatcher> logEventMatchers) {
+        Optional<Level> level = logExpectation.level;
+        Optional<String> regex = logExpectation.regex;
+        TextPattern pattern = logExpectation.messagePattern;
+        // resolved once, so that matching allocates nothing per event
+        Level expectedLevel = level.orElse(null);
+        MatcherOrder matcherOrder = new MatcherOrder(logEventMatchers);
+        TextPattern scanPattern = pattern.forScan();
+        EventPositions indexedPositions = capturingAppender.getCandidatePositions(level, pattern, startIndex, logEventMatchers);
+        if (indexedPositions.size() >= capturingAppender.parallelMatchingThreshold) {
+            // an ordered parallel stream still finds the first match
+            LogEventMatcher[] matchers = matcherOrder.snapshot();
+            OptionalInt firstMatch = IntStream.range(0, indexedPositions.size()).parallel()
+                    .map(indexedPositions::get)
+                    .filter(i -> isCompleteMatch(capturingAppender.loggedEvents.get(i), expectedLevel, pattern, matchers))
+                    .findFirst();
+            if (firstMatch.isPresent()) {
+                return firstMatch.getAsInt();
+            }
+        } else {
+            for (int candidate = 0; candidate < indexedPositions.size(); candidate++) {
+                int i = indexedPositions.get(candidate);
+                LoggedEvent event = capturingAppender.loggedEvents.get(i);
+                if (eventMatchesWithoutAdditionalMatchers(event, expectedLevel, scanPattern) && matcherOrder.matches(event)) {
+                    return i;
+                }
+            }
+        }
+
+        // not found, so look for events that only fail the additional matchers to explain why
         LoggedEvent eventMatchingWithoutAdditionalMatchers = null;
-        for (int i = startIndex; i < capturingAppender.loggedEvents.size(); i++) {
+        EventPositions candidatePositions = capturingAppender.getCandidatePositions(level, pattern, startIndex, List.of());
+        for (int candidate = 0; candidate < candidatePositions.size(); candidate++) {
+            int i = candidatePositions.get(candidate);
             LoggedEvent event = capturingAppender.loggedEvents.get(i);
-            if (eventMatchesWithoutAdditionalMatchers(event, level, pattern)) {
-                if (isMatchedByAll(event, logEventMatchers)) {
+            if (eventMatchesWithoutAdditionalMatchers(event, expectedLevel, scanPattern)) {
+                if (matcherOrder.matches(event)) {
                     return i;
                 }
                 eventMatchingWithoutAdditionalMatchers = event;
             }
         }
         if (eventMatchingWithoutAdditionalMatchers != null) {
-            throwAssertionForPartiallyMatchingLoggedEvent(level, regex, eventMatchingWithoutAdditionalMatchers, logEventMatchers);
+            throwAssertionForPartiallyMatchingLoggedEvent(level, regex, eventMatchingWithoutAdditionalMatchers, logEventMatchers, capturingAppender.getDroppedEventsHint());
         }
-        throw new AssertionError(format("Expected log message has not occurred.%s", getDescriptionForExpectedMessage(level, regex)));
+        throw new AssertionError(format("Expected log message has not occurred.%s%s", getDescriptionForExpectedMessage(level, regex), capturingAppender.getDroppedEventsHint()));
     }
 
-    void assertNotCaptured(Optional<Level> level, Optional<String> regex, List<LogEventMatcher> logEventMatchers) {
-        if (getNumberOfMatches(level, regex, logEventMatchers).completeMatches > 0) {
-            throw new AssertionError(format("Found a log message that should not be logged.%s", getDescriptionForExpectedMessageWithAdditionalMatchers(level, regex, logEventMatchers)));
+    private void assignAllMatches(LogExpectation[] logExpectations, int[][] candidatesOfExpectation) {
+        for (int expectation = 0; expectation < logExpectations.length; expectation++) {
+            if (candidatesOfExpectation[expectation].length == 0) {
+                // fails, explaining why the expectation has not been met
+                assertCapturedNext(logExpectations[expectation], Optional.empty());
+            }
         }
-    }
 
-    private record Matches(int completeMatches, int matchesWithoutAdditionalMatchers) {}
+        int[] eventOfExpectation = BipartiteMatching.assign(candidatesOfExpectation, capturingAppender.loggedEvents.size());
+        for (int expectation = 0; expectation < logExpectations.length; expectation++) {
+            if (eventOfExpectation[expectation] == BipartiteMatching.UNMATCHED) {
+                throwAssertionForImpreciseMatching(logExpectations, candidatesOfExpectation, eventOfExpectation, expectation);
+            }
+        }
+    }
 
-    private Matches getNumberOfMatches(Optional<Level> level, Optional<String> regex, List<LogEventMatcher> logEventMatchers) {
-        Pattern pattern = Pattern.compile(".*" + regex.orElse("") + ".*", Pattern.DOTALL + Pattern.MULTILINE);
+    // all events of the unassigned expectation are taken by other expectations, so one of these competes for the same message
+    private static void throwAssertionForImpreciseMatching(LogExpectation[] logExpectations, int[][] candidatesOfExpectation,
+                                                           int[] eventOfExpectation, int unassignedExpectation) {
+        int contestedEvent = candidatesOfExpectation[unassignedExpectation][0];
+        int competingExpectation = 0;
+        while (eventOfExpectation[competingExpectation] != contestedEvent) {
+            competingExpectation++;
+        }
+        LogExpectation firstMatch = logExpectations[Math.min(unassignedExpectation, competingExpectation)];
+        LogExpectation secondMatch = logExpectations[Math.max(unassignedExpectation, competingExpectation)];
+        throw new AssertionError(format("""
+                        Imprecise matching: Two log expectations have matched the same message. Use more precise matching or in-order matching.
+                        -- First match:%s-- Second match:%s""",
+                getDescriptionForExpectedMessageWithAdditionalMatchers(firstMatch.level, firstMatch.regex, firstMatch.logEventMatchers),
+                getDescriptionForExpectedMessageWithAdditionalMatchers(secondMatch.level, secondMatch.regex, secondMatch.logEventMatchers)));
+    }
 
-        int completeMatches = 0;
+    private int countMatchesWithoutAdditionalMatchers(LogExpectation logExpectation) {
         int matchesWithoutAdditionalMatchers = 0;
-
-        for (int i = 0; i < capturingAppender.loggedEvents.size(); i++) {
-            LoggedEvent event = capturingAppender.loggedEvents.get(i);
-            if (eventMatchesWithoutAdditionalMatchers(event, level, pattern)) {
+        Level expectedLevel = logExpectation.level.orElse(null);
+        TextPattern scanPattern = logExpectation.messagePattern.forScan();
+        EventPositions candidatePositions = capturingAppender.getCandidatePositions(logExpectation.level, logExpectation.messagePattern, firstPosition(), List.of());
+        for (int candidate = 0; candidate < candidatePositions.size(); candidate++) {
+            LoggedEvent event = capturingAppender.loggedEvents.get(candidatePositions.get(candidate));
+            if (eventMatchesWithoutAdditionalMatchers(event, expectedLevel, scanPattern)) {
                 matchesWithoutAdditionalMatchers++;
-                if (isMatchedByAll(event, logEventMatchers)) {
-                    completeMatches++;
-                }
             }
         }
-        return new Matches(completeMatches, matchesWithoutAdditionalMatchers);
+        return matchesWithoutAdditionalMatchers;
+    }
+
+    static boolean isCompleteMatch(LoggedEvent event, Level expectedLevel, TextPattern pattern, LogEventMatcher[] logEventMatchers) {
+        return eventMatchesWithoutAdditionalMatchers(event, expectedLevel, pattern) && allMatch(event, logEventMatchers);
     }
 
-    private boolean eventMatchesWithoutAdditionalMatchers(LoggedEvent event, Optional<Level> level, Pattern pattern) {
-        return eventMatchesLevel(event, level) && eventMatchesPattern(event, pattern);
+    private static boolean eventMatchesWithoutAdditionalMatchers(LoggedEvent event, Level expectedLevel, TextPattern pattern) {
+        return eventMatchesLevel(event, expectedLevel) && eventMatchesPattern(event, pattern);
     }
 
-    private static void throwAssertionForPartiallyMatchingLoggedEvent(Optional<Level> level, Optional<String> regex, LoggedEvent partiallyMatchingLoggedEvent, List<LogEventMatcher> logEventMatchers) {
+    private static void throwAssertionForPartiallyMatchingLoggedEvent(Optional<Level> level, Optional<String> regex, LoggedEvent partiallyMatchingLoggedEvent,
+                                                                      List<LogEventMatcher> logEventMatchers, String droppedEventsHint) {
         StringBuilder assertionMessage = new StringBuilder();
 
         for (LogEventMatcher logEventMatcher : logEventMatchers) {
@@ -262,24 +346,28 @@ public class LogAsserter {
                 assertionMessage.append(lineSeparator());
             }
         }
+        assertionMessage.append(droppedEventsHint);
         throw new AssertionError(assertionMessage.toString());
     }
 
-    private static boolean eventMatchesPattern(LoggedEvent event, Pattern pattern) {
-        return pattern.matcher(event.getFormattedMessage()).matches();
+    private static boolean eventMatchesPattern(LoggedEvent event, TextPattern pattern) {
+        return pattern.isFoundIn(event.getFormattedMessage());
     }
 
-    private static boolean eventMatchesLevel(LoggedEvent event, Optional<Level> expectedLevel) {
-        return expectedLevel
-                .map(expected -> event.getLevel().equals(expected))
-                .orElse(true);
+    /*
+     * expectedLevel is null if any level is expected
+     */
+    static boolean eventMatchesLevel(LoggedEvent event, Level expectedLevel) {
+        return expectedLevel == null || event.getLevel().equals(expectedLevel);
     }
 
-    static boolean isMatchedByAll(LoggedEvent loggedEvent, List<? extends LogEventMatcher> logEventMatchers) {
-        if (logEventMatchers == null) {
-            return true;
+    static boolean allMatch(LoggedEvent loggedEvent, LogEventMatcher[] logEventMatchers) {
+        for (LogEventMatcher logEventMatcher : logEventMatchers) {
+            if (!logEventMatcher.matches(loggedEvent)) {
+                return false;
+            }
         }
-        return logEventMatchers.stream().allMatch(matcher -> matcher.matches(loggedEvent));
+        return true;
     }
 
     @SuppressWarnings("squid:S1192") // a constant for "Level: " is not helpful
@@ -287,6 +375,10 @@ public class LogAsserter {
         return getExpectedLogMessageText(level, regex) + lineSeparator();
     }
 
+    static String getDescription(LogExpectation logExpectation) {
+        return getDescriptionForExpectedMessageWithAdditionalMatchers(logExpectation.level, logExpectation.regex, logExpectation.logEventMatchers);
+    }
+
     private static String getDescriptionForExpectedMessageWithAdditionalMatchers(Optional<Level> level, Optional<String> regex, List<LogEventMatcher> matchers) {
         String matchersText = "";
         if (matchers != null && !matchers.isEmpty()) {
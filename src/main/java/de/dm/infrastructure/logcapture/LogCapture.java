@@ -2,16 +2,24 @@ package de.dm.infrastructure.logcapture;
 
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
 import org.junit.jupiter.api.extension.AfterEachCallback;
 import org.junit.jupiter.api.extension.BeforeEachCallback;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 
 import static org.slf4j.Logger.ROOT_LOGGER_NAME;
 
@@ -25,7 +33,22 @@ public final class LogCapture implements BeforeEachCallback, AfterEachCallback {
     final Set<String> capturedPackages;
     CapturingAppender capturingAppender;
     private final Logger rootLogger = (Logger) LoggerFactory.getLogger(ROOT_LOGGER_NAME);
-    private HashMap<String, Level> originalLogLevels = null;
+    private Map<String, Level> requestedLogLevels = null;
+    private int capacity = 0;
+    private OverflowPolicy overflowPolicy = null;
+    private boolean lazyMaterialization = false;
+    private boolean appenderOnPackageLoggers = false;
+    private boolean eventIndex = false;
+    private boolean messageIndex = false;
+    private int parallelMatchingThreshold = CapturingAppender.DEFAULT_PARALLEL_MATCHING_THRESHOLD;
+    private Level captureLevel = Level.TRACE;
+    private final Map<String, Level> packageCaptureLevels = new HashMap<>();
+    private boolean captureFilter = false;
+    private boolean buffering = true;
+    private CaptureTurboFilter captureTurboFilter = null;
+    private List<Logger> loggersWithAppender = null;
+    private List<CapturingAppender> activeCapturesOfThread = null;
+    private List<CapturingAppender> propagatedCaptures = null;
 
     /**
      * Instantiate LogCapture with some packages (for example "de.dm") to define which logs should
@@ -105,6 +128,209 @@ public final class LogCapture implements BeforeEachCallback, AfterEachCallback {
         this.capturedPackages = capturedPackages;
     }
 
+    /**
+     * Limit the number of captured log messages, for example for long-running tests that log too much to keep everything in memory.
+     * The captured messages are kept in a buffer that is allocated with the given capacity when capturing starts.
+     * <p>
+     * Assertions that fail while messages have been dropped mention that the expected message may have been dropped.
+     * Since dropped messages cannot be checked anymore, {@link #assertNotLogged(LogExpectation...)} cannot detect them.
+     *
+     * <p>Example:
+     * <pre>{@code
+     * @RegisterExtension
+     * LogCapture logCapture = LogCapture.forCurrentPackage().withCapacity(10_000, OverflowPolicy.DROP_OLDEST);
+     * }</pre>
+     *
+     * @param capacity maximum number of log messages to keep
+     * @param overflowPolicy what to do when more log messages are logged than the capacity allows
+     *
+     * @return this LogCapture, to be used in test
+     *
+     * @throws IllegalArgumentException if capacity is less than 1
+     */
+    public LogCapture withCapacity(int capacity, OverflowPolicy overflowPolicy) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1, but was " + capacity);
+        }
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+        return this;
+    }
+
+    /**
+     * Defer formatting log messages and converting attached exceptions until an assertion needs them. This makes logging
+     * in the code under test cheaper if it logs a lot of messages that are never asserted.
+     * <p>
+     * The arguments of a log message are kept until it is formatted. So do not use this if the code under test changes objects
+     * after logging them, because the asserted message would show the changed state.
+     *
+     * @return this LogCapture, to be used in test
+     */
+    public LogCapture withLazyMaterialization() {
+        lazyMaterialization = true;
+        return this;
+    }
+
+    /**
+     * Attach the capturing appender to the loggers of the captured packages instead of the root logger. This way, log events
+     * from other packages (like frameworks) never reach log capture, which makes them cheaper if there are a lot of them.
+     * <p>
+     * Unlike with the default root logger attachment, messages from loggers in the captured packages whose additivity is set
+     * to false are captured as well.
+     *
+     * @return this LogCapture, to be used in test
+     */
+    public LogCapture withAppenderOnPackageLoggers() {
+        appenderOnPackageLoggers = true;
+        return this;
+    }
+
+    /**
+     * Index captured log events by logger name, MDC keys and values, marker names and key-value keys. Assertions with
+     * logger(), mdc(), marker() or keyValue() expectations then only look at the events that can match them instead of
+     * all captured events, which makes them faster if a test captures a lot of log events.
+     * <p>
+     * The index is built when assertions need it and has no effect with {@link #withCapacity(int, OverflowPolicy)}.
+     *
+     * @return this LogCapture, to be used in test
+     */
+    public LogCapture withEventIndex() {
+        eventIndex = true;
+        return this;
+    }
+
+    /**
+     * Index the text of captured log messages. Assertions then skip the messages that cannot contain the plain text that
+     * the expected message requires, like {@code "order "} and {@code " shipped"} in {@code "order [0-9]+ shipped"}, before
+     * matching the regex. This makes them faster if a test captures a lot of log events.
+     * <p>
+     * The index is built when assertions need it and has no effect with {@link #withCapacity(int, OverflowPolicy)}. It
+     * formats all captured messages, so it also undoes the savings of {@link #withLazyMaterialization()} once an assertion
+     * is made.
+     *
+     * @return this LogCapture, to be used in test
+     */
+    public LogCapture withMessageIndex() {
+        messageIndex = true;
+        return this;
+    }
+
+    /**
+     * Set how many captured log events an assertion must look at to match them in parallel on the common ForkJoinPool, instead
+     * of the default of 1,000,000. This speeds up assertions on very large captures, like those of replay tests.
+     * <p>
+     * Log events are always matched sequentially if only one processor is available. Custom matchers must be thread safe to
+     * be used with parallel matching.
+     *
+     * @param numberOfEvents minimum number of log events to match in parallel
+     *
+     * @return this LogCapture, to be used in test
+     *
+     * @throws IllegalArgumentException if numberOfEvents is less than 1
+     */
+    public LogCapture withParallelMatchingThreshold(int numberOfEvents) {
+        if (numberOfEvents < 1) {
+            throw new IllegalArgumentException("parallel matching threshold must be at least 1, but was " + numberOfEvents);
+        }
+        parallelMatchingThreshold = numberOfEvents;
+        return this;
+    }
+
+    /**
+     * Set the level that the captured packages are logged with during the test, instead of TRACE. Log statements below this
+     * level are skipped by logback entirely, which avoids expensive formatting of messages that are never asserted.
+     *
+     * <p>Example:
+     * <pre>{@code
+     * @RegisterExtension
+     * LogCapture logCapture = LogCapture.forCurrentPackage().withCaptureLevel(Level.DEBUG);
+     * }</pre>
+     *
+     * @param captureLevel level to set for the captured packages
+     *
+     * @return this LogCapture, to be used in test
+     *
+     * @throws IllegalArgumentException if captureLevel is null, ALL or OFF
+     */
+    public LogCapture withCaptureLevel(Level captureLevel) {
+        requireCaptureLevel(captureLevel);
+        this.captureLevel = captureLevel;
+        return this;
+    }
+
+    /**
+     * Set individual capture levels for some packages, overriding the level set by {@link #withCaptureLevel(Level)}.
+     * A package may be one of the captured packages or a sub-package of one.
+     *
+     * <p>Example:
+     * <pre>{@code
+     * @RegisterExtension
+     * LogCapture logCapture = LogCapture.forPackages("com.example.app", "com.example.lib")
+     *     .withCaptureLevels(Map.of("com.example.lib", Level.INFO, "com.example.app.payload", Level.DEBUG));
+     * }</pre>
+     *
+     * @param captureLevels levels by package name
+     *
+     * @return this LogCapture, to be used in test
+     *
+     * @throws IllegalArgumentException if a package is not captured or a level is null, ALL or OFF
+     */
+    public LogCapture withCaptureLevels(Map<String, Level> captureLevels) {
+        captureLevels.values().forEach(LogCapture::requireCaptureLevel);
+        PackageTrie capturedPackageTrie = new PackageTrie(capturedPackages);
+        captureLevels.keySet().stream()
+                .filter(packageName -> !capturedPackageTrie.covers(packageName))
+                .findFirst()
+                .ifPresent(packageName -> {
+                    throw new IllegalArgumentException("Cannot set a capture level for %s because it is not captured. Captured packages are %s."
+                            .formatted(packageName, capturedPackages));
+                });
+        packageCaptureLevels.putAll(captureLevels);
+        return this;
+    }
+
+    /*
+     * ALL and OFF are not levels that events are logged with, so capturing with them would capture everything or nothing
+     */
+    static boolean isCaptureLevel(Level level) {
+        return level != null && level.toInt() != Level.ALL_INT && level.toInt() != Level.OFF_INT;
+    }
+
+    private static void requireCaptureLevel(Level level) {
+        if (!isCaptureLevel(level)) {
+            throw new IllegalArgumentException("Cannot capture with level %s. Use one of TRACE, DEBUG, INFO, WARN or ERROR.".formatted(level));
+        }
+    }
+
+    /**
+     * Enable log statements of the captured packages with a logback turbo filter instead of changing the levels of their
+     * loggers. The filter decides from the logger's name and the statement's level before logback creates a logging event,
+     * and leaves everything that is not captured to the configured levels.
+     * <p>
+     * Since the levels are not changed, loggers below the captured packages that have their own level configured
+     * are captured at the capture level as well.
+     *
+     * @return this LogCapture, to be used in test
+     */
+    public LogCapture withCaptureFilter() {
+        captureFilter = true;
+        return this;
+    }
+
+    /**
+     * Do not keep captured log messages, but only check them against {@link #expectNever(LogExpectation...)} and
+     * {@link #expectWithin(Duration, LogExpectation)} as they are logged. Memory then stays flat no matter how much a
+     * long-running test logs.
+     * <p>
+     * Assertions like {@link #assertLogged(LogExpectation)} cannot be used with this, since there is nothing to assert.
+     *
+     * @return this LogCapture, to be used in test
+     */
+    public LogCapture withoutBuffering() {
+        buffering = false;
+        return this;
+    }
+
     @Override
     public void beforeEach(ExtensionContext context) {
         addAppenderAndSetLogLevelToTrace();
@@ -112,7 +338,12 @@ public final class LogCapture implements BeforeEachCallback, AfterEachCallback {
 
     @Override
     public void afterEach(ExtensionContext context) {
-        removeAppenderAndResetLogLevel();
+        try {
+            assertExpectationsMet();
+        } finally {
+            removeAppenderAndResetLogLevel();
+        }
+        capturingAppender.assertCapacityNotExceeded();
     }
 
     /**
@@ -120,34 +351,99 @@ public final class LogCapture implements BeforeEachCallback, AfterEachCallback {
      * <p>
      * For example, this may be used in a Method that is annotated with Cucumber's @Before annotation to start capturing.
      * In this case, make sure you also call {@link LogCapture#removeAppenderAndResetLogLevel()} in an @After method
+     * <p>
+     * Log events are attributed to the capture that has been started on the thread that logs them, so tests that run in
+     * parallel do not see each other's log events. Log events from threads without a capture are captured by all captures.
+     *
+     * @throws IllegalStateException if capturing has already been started
      */
     public void addAppenderAndSetLogLevelToTrace() {
-        capturingAppender = new CapturingAppender(rootLogger.getLoggerContext(), capturedPackages);
-        rootLogger.addAppender(capturingAppender);
+        if (requestedLogLevels != null) {
+            throw new IllegalStateException("LogCapture.addAppenderAndSetLogLevelToTrace() should not be called only once or after calling removeAppenderAndResetLogLevel() again.");
+        }
+        capturingAppender = new CapturingAppender(rootLogger.getLoggerContext(), getCaptureLevels(),
+                overflowPolicy == null ? new CapturedEvents() : new CapturedEventsRingBuffer(capacity, overflowPolicy), lazyMaterialization,
+                eventIndex, messageIndex, Runtime.getRuntime().availableProcessors() > 1 ? parallelMatchingThreshold : Integer.MAX_VALUE);
+        if (!buffering) {
+            capturingAppender.disableBuffering();
+        }
+        activeCapturesOfThread = CaptureAttribution.activate(capturingAppender);
+        propagatedCaptures = List.of(capturingAppender);
+        if (appenderOnPackageLoggers) {
+            loggersWithAppender = getPackageLoggersForAppender();
+            loggersWithAppender.forEach(logger -> logger.addAppender(capturingAppender));
+        } else {
+            CaptureDispatcher.addCapture(rootLogger.getLoggerContext(), capturingAppender);
+        }
         setLogLevelToTrace();
     }
 
+    /*
+     * Every log event must reach the appender exactly once. So it is attached to each captured package and to each
+     * non-additive logger below one, unless events already reach another of these loggers through additive loggers only.
+     */
+    private List<Logger> getPackageLoggersForAppender() {
+        LoggerContext loggerContext = rootLogger.getLoggerContext();
+        PackageTrie capturedPackageTrie = new PackageTrie(capturedPackages);
+        Set<String> candidates = new HashSet<>(capturedPackages);
+        loggerContext.getLoggerList().stream()
+                .filter(logger -> !logger.isAdditive() && capturedPackageTrie.covers(logger.getName()))
+                .forEach(logger -> candidates.add(logger.getName()));
+
+        List<Logger> loggers = new ArrayList<>();
+        for (String candidate : candidates) {
+            if (!reachesOtherCandidate(loggerContext, candidate, candidates)) {
+                loggers.add(loggerContext.getLogger(candidate));
+            }
+        }
+        return loggers;
+    }
+
+    private static boolean reachesOtherCandidate(LoggerContext loggerContext, String loggerName, Set<String> candidates) {
+        String name = loggerName;
+        while (true) {
+            Logger existingLogger = loggerContext.exists(name);
+            int separator = Math.max(name.lastIndexOf('.'), name.lastIndexOf('$'));
+            if ((existingLogger != null && !existingLogger.isAdditive()) || separator < 0) {
+                return false;
+            }
+            name = name.substring(0, separator);
+            if (candidates.contains(name)) {
+                return true;
+            }
+        }
+    }
+
     private void setLogLevelToTrace() {
-        if (originalLogLevels != null) {
-            throw new IllegalStateException("LogCapture.addAppenderAndSetLogLevelToTrace() should not be called only once or after calling removeAppenderAndResetLogLevel() again.");
+        if (captureFilter) {
+            requestedLogLevels = Map.of();
+            captureTurboFilter = new CaptureTurboFilter(getCaptureLevels());
+            captureTurboFilter.start();
+            rootLogger.getLoggerContext().addTurboFilter(captureTurboFilter);
+            return;
         }
-        originalLogLevels = new HashMap<>();
-        capturedPackages.forEach(packageName -> {
-                    Logger packageLogger = rootLogger.getLoggerContext().getLogger(packageName);
-                    originalLogLevels.put(packageName, packageLogger.getLevel());
-                    rootLogger.getLoggerContext().getLogger(packageName).setLevel(Level.TRACE);
-                }
-        );
+        requestedLogLevels = getCaptureLevels();
+        SharedLogLevels.request(rootLogger.getLoggerContext(), requestedLogLevels);
+    }
+
+    private Map<String, Level> getCaptureLevels() {
+        Map<String, Level> levels = new HashMap<>();
+        capturedPackages.forEach(packageName -> levels.put(packageName, captureLevel));
+        levels.putAll(packageCaptureLevels);
+        return levels;
     }
 
     private void resetLogLevel() {
-        if (originalLogLevels == null) {
+        if (requestedLogLevels == null) {
             throw new IllegalStateException("LogCapture.resetLogLevel() should only be called after calling addAppenderAndSetLogLevelToTrace()");
         }
-        capturedPackages.forEach(packageName ->
-                rootLogger.getLoggerContext().getLogger(packageName).setLevel(originalLogLevels.get(packageName))
-        );
-        originalLogLevels = null;
+        if (captureTurboFilter != null) {
+            rootLogger.getLoggerContext().getTurboFilterList().remove(captureTurboFilter);
+            captureTurboFilter.stop();
+            captureTurboFilter = null;
+        }
+        SharedLogLevels.release(rootLogger.getLoggerContext(), requestedLogLevels);
+        requestedLogLevels = null;
     }
 
     /**
@@ -156,10 +452,83 @@ public final class LogCapture implements BeforeEachCallback, AfterEachCallback {
      * For example, this may be used in a Method that is annotated with Cucumber's @After annotation to start capturing.
      */
     public void removeAppenderAndResetLogLevel() {
-        rootLogger.detachAppender(capturingAppender);
+        if (loggersWithAppender != null) {
+            loggersWithAppender.forEach(logger -> logger.detachAppender(capturingAppender));
+            loggersWithAppender = null;
+        } else if (capturingAppender != null) {
+            CaptureDispatcher.removeCapture(rootLogger.getLoggerContext(), capturingAppender);
+        }
+        if (activeCapturesOfThread != null) {
+            CaptureAttribution.deactivate(activeCapturesOfThread, capturingAppender);
+            activeCapturesOfThread = null;
+            propagatedCaptures = null;
+        }
         resetLogLevel();
     }
 
+    /**
+     * Attribute the log events of a task to this capture, no matter which thread runs it. Without this, log events from other
+     * threads are captured by every active capture, which matters if tests run in parallel.
+     * <p>
+     * Call this while capturing. The task is returned as it is otherwise.
+     *
+     * <p>Example:
+     * <pre>{@code
+     * new Thread(logCapture.propagateCapture(() -> log.info("hello from another thread"))).start();
+     * }</pre>
+     *
+     * @param task task whose log events should be captured by this capture
+     *
+     * @return wrapped task
+     */
+    public Runnable propagateCapture(Runnable task) {
+        List<CapturingAppender> captures = propagatedCaptures;
+        return captures == null ? task : CaptureAttribution.propagate(captures, task);
+    }
+
+    /**
+     * Attribute the log events of a task to this capture, no matter which thread runs it, like {@link #propagateCapture(Runnable)}.
+     *
+     * @param task task whose log events should be captured by this capture
+     * @param <T> result type of the task
+     *
+     * @return wrapped task
+     */
+    public <T> Callable<T> propagateCapture(Callable<T> task) {
+        List<CapturingAppender> captures = propagatedCaptures;
+        return captures == null ? task : CaptureAttribution.propagate(captures, task);
+    }
+
+    /**
+     * Attribute the log events of all tasks that are executed by an executor to this capture, like {@link #propagateCapture(Runnable)}.
+     * Tasks are attributed to this capture if it is active when they are handed to the executor.
+     *
+     * <p>Example:
+     * <pre>{@code
+     * CompletableFuture.supplyAsync(() -> service.doSomething(), logCapture.propagateCapture(executor));
+     * }</pre>
+     *
+     * @param executor executor that runs tasks whose log events should be captured by this capture
+     *
+     * @return wrapped executor
+     */
+    public Executor propagateCapture(Executor executor) {
+        return task -> executor.execute(propagateCapture(task));
+    }
+
+    /**
+     * Attribute the log events of all tasks that are submitted to an executor service to this capture, like {@link #propagateCapture(Runnable)}.
+     * Tasks are attributed to this capture if it is active when they are submitted. Shutting down the returned executor
+     * service shuts down the wrapped one.
+     *
+     * @param executorService executor service that runs tasks whose log events should be captured by this capture
+     *
+     * @return wrapped executor service
+     */
+    public ExecutorService propagateCapture(ExecutorService executorService) {
+        return new CapturePropagatingExecutorService(executorService, this);
+    }
+
     /**
      * assert that a certain expected message has been logged.
      *
@@ -265,6 +634,120 @@ public final class LogCapture implements BeforeEachCallback, AfterEachCallback {
     }
 
 
+    /**
+     * remember the current position in the capture, so that later assertions can be limited to what has been logged after it
+     * with {@link #since(Checkpoint)}. Captured log events are neither copied nor removed.
+     *
+     * <p>Example:
+     * <pre>{@code
+     * Checkpoint checkout = logCapture.checkpoint();
+     * shop.checkout();
+     * logCapture.since(checkout)
+     *     .assertLogged(info("order placed"))
+     *     .assertNothingElseLogged();
+     * }</pre>
+     *
+     * @return checkpoint at the current end of the capture
+     *
+     * @throws IllegalStateException if capturing has not been started
+     */
+    public Checkpoint checkpoint() {
+        assertCapturing("checkpoint");
+        return new Checkpoint(capturingAppender, capturingAppender.getNumberOfCapturedEvents());
+    }
+
+    /**
+     * limit assertions to log messages that have been logged after a checkpoint. Only these are searched, and
+     * {@link LogAsserter.NothingElseLoggedAsserter#assertNothingElseLogged()} only considers these as well.
+     *
+     * @param checkpoint checkpoint from {@link #checkpoint()} of this LogCapture
+     *
+     * @return an asserter to assert log messages that have been logged after the checkpoint
+     *
+     * @throws IllegalArgumentException if the checkpoint belongs to another capture
+     */
+    public LogAsserter since(Checkpoint checkpoint) {
+        if (checkpoint.capturingAppender != capturingAppender) {
+            throw new IllegalArgumentException("The checkpoint belongs to another capture.");
+        }
+        return new LogAsserter(capturingAppender, new LinkedList<>(), checkpoint.numberOfCapturedEvents);
+    }
+
+    /**
+     * fail the test if a matching message is logged from now on. Log messages are checked as they are logged, so this also
+     * works with {@link #withoutBuffering()} and {@link #withCapacity(int, OverflowPolicy)}.
+     * <p>
+     * The next assertion or the end of the test fails with the first offending message. The stack trace of that
+     * AssertionError shows where the message has been logged, even if that has been on another thread.
+     *
+     * <p>Example:
+     * <pre>{@code
+     * logCapture.expectNever(error(), warn("retrying"));
+     * replayOneDayOfOrders();
+     * }</pre>
+     *
+     * @param logExpectations descriptions of log messages that should never be logged
+     *
+     * @throws IllegalStateException if capturing has not been started
+     * @throws IllegalArgumentException if no LogExpectation is provided
+     */
+    public void expectNever(LogExpectation... logExpectations) {
+        if (logExpectations.length < 1) {
+            throw new IllegalArgumentException("at least one LogExpectation is required for expectNever(). Found none");
+        }
+        assertCapturing("expectNever");
+        for (LogExpectation logExpectation : logExpectations) {
+            capturingAppender.onlineExpectations.expectNever(logExpectation);
+        }
+    }
+
+    /**
+     * fail the test if no matching message is logged within a timeout from now on. Log messages are checked as they are
+     * logged, so this also works with {@link #withoutBuffering()} and {@link #withCapacity(int, OverflowPolicy)}.
+     * <p>
+     * The end of the test waits until the message has been logged or the timeout is over, so this can be used for
+     * messages that are logged asynchronously.
+     *
+     * <p>Example:
+     * <pre>{@code
+     * logCapture.expectWithin(Duration.ofSeconds(5), info("order [0-9]+ shipped"));
+     * shop.checkoutAsync();
+     * }</pre>
+     *
+     * @param timeout time from now on in which the message must be logged
+     * @param logExpectation description of the expected log message
+     *
+     * @throws IllegalStateException if capturing has not been started
+     * @throws IllegalArgumentException if timeout is negative
+     */
+    public void expectWithin(Duration timeout, LogExpectation logExpectation) {
+        if (timeout.isNegative()) {
+            throw new IllegalArgumentException("timeout must not be negative, but was " + timeout);
+        }
+        assertCapturing("expectWithin");
+        capturingAppender.onlineExpectations.expectWithin(timeout, logExpectation);
+    }
+
+    /**
+     * assert that the expectations from {@link #expectNever(LogExpectation...)} and {@link #expectWithin(Duration, LogExpectation)}
+     * have been met, waiting for messages of expectWithin() until their timeout is over. This is done at the end of each test,
+     * so it only needs to be called if LogCapture is not used as a JUnit extension. Call it before
+     * {@link #removeAppenderAndResetLogLevel()} in that case.
+     *
+     * @throws AssertionError if an expectation has not been met
+     * @throws IllegalStateException if capturing has not been started
+     */
+    public void assertExpectationsMet() {
+        assertCapturing("assertExpectationsMet");
+        capturingAppender.onlineExpectations.assertMet();
+    }
+
+    private void assertCapturing(String methodName) {
+        if (capturingAppender == null) {
+            throw new IllegalStateException("LogCapture.%s() should only be called after calling addAppenderAndSetLogLevelToTrace()".formatted(methodName));
+        }
+    }
+
     /**
      * set up additional log matchers describing aspects that all asserted log messages should match (for example MDC content)
      *
@@ -1,5 +1,6 @@
 package de.dm.infrastructure.logcapture;
 
+import ch.qos.logback.classic.Level;
 import org.junit.jupiter.api.extension.AfterEachCallback;
 import org.junit.jupiter.api.extension.BeforeEachCallback;
 import org.junit.jupiter.api.extension.ExtensionContext;
@@ -45,6 +46,15 @@ public final class LogCaptureExtension implements BeforeEachCallback, AfterEachC
     public void beforeEach(ExtensionContext context) {
         Class<?> testClass = context.getRequiredTestClass();
         LogCapture logCapture = LogCapture.forPackageSet(getUserDefinedPackages(testClass));
+        AnnotationSupport.findAnnotation(testClass, LogCapturePackages.class).ifPresent(annotation -> {
+            if (annotation.capacity() > 0) {
+                logCapture.withCapacity(annotation.capacity(), annotation.overflowPolicy());
+            }
+            if (annotation.captureFilter()) {
+                logCapture.withCaptureFilter();
+            }
+            logCapture.withCaptureLevel(getCaptureLevel(annotation));
+        });
         logCapture.addAppenderAndSetLogLevelToTrace();
         LogCapture.setCurrent(logCapture);
     }
@@ -53,7 +63,21 @@ public final class LogCaptureExtension implements BeforeEachCallback, AfterEachC
     public void afterEach(ExtensionContext context) {
         LogCapture logCapture = LogCapture.logCapture();
         LogCapture.clearCurrent();
-        logCapture.removeAppenderAndResetLogLevel();
+        try {
+            logCapture.assertExpectationsMet();
+        } finally {
+            logCapture.removeAppenderAndResetLogLevel();
+        }
+        logCapture.capturingAppender.assertCapacityNotExceeded();
+    }
+
+    private static Level getCaptureLevel(LogCapturePackages annotation) {
+        Level level = Level.toLevel(annotation.level(), null);
+        if (!LogCapture.isCaptureLevel(level)) {
+            throw new IllegalArgumentException(
+                    "@LogCapturePackages has an invalid level: " + annotation.level());
+        }
+        return level;
     }
 
     private static Set<String> getUserDefinedPackages(Class<?> testClass) {
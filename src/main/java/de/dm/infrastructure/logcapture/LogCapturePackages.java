@@ -34,4 +34,33 @@ public @interface LogCapturePackages {
      * @return package names to capture
      */
     String[] value();
+
+    /**
+     * Maximum number of log messages to keep, see {@link LogCapture#withCapacity(int, OverflowPolicy)}. 0 means unbounded.
+     *
+     * @return maximum number of captured log messages
+     */
+    int capacity() default 0;
+
+    /**
+     * What to do when more log messages are logged than {@link #capacity()} allows. Only used if a capacity is set.
+     *
+     * @return overflow policy for a bounded capture
+     */
+    OverflowPolicy overflowPolicy() default OverflowPolicy.DROP_OLDEST;
+
+    /**
+     * Level that the captured packages are logged with during the test, see {@link LogCapture#withCaptureLevel(ch.qos.logback.classic.Level)}.
+     * Must be one of TRACE, DEBUG, INFO, WARN or ERROR.
+     *
+     * @return name of the capture level
+     */
+    String level() default "TRACE";
+
+    /**
+     * Whether to enable the captured packages with a turbo filter instead of changing their levels, see {@link LogCapture#withCaptureFilter()}.
+     *
+     * @return true if a turbo filter should be used
+     */
+    boolean captureFilter() default false;
 }
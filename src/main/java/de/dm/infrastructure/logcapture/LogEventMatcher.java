@@ -36,5 +36,19 @@ public interface LogEventMatcher {
      */
     String getMatcherDetailDescription();
 
+    /**
+     * rough relative cost of {@link #matches(LoggedEvent)}. If an expectation has several matchers, cheap ones are checked
+     * first, so that expensive ones only look at events that the cheap ones have not rejected. While assertions scan the
+     * captured events, matchers that reject more events are moved forward as well.
+     * <p>
+     * Built-in matchers range from 10 (like searching plain text or looking up a marker) to 100 (exceptions). Override this
+     * if your matcher is notably cheaper or more expensive than the default.
+     *
+     * @return cost hint, lower is cheaper
+     */
+    default int getMatchingCost() {
+        return MatchingCosts.UNKNOWN;
+    }
+
 
 }
@@ -6,6 +6,7 @@ import lombok.ToString;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.regex.Pattern;
 
 /**
  * class for describing an expected log message
@@ -16,29 +17,29 @@ public final class LogExpectation {
     final Optional<Level> level;
     @ToString.Include
     final Optional<String> regex;
+    final TextPattern messagePattern;
     final List<LogEventMatcher> logEventMatchers;
 
     private LogExpectation(Level level, String regex, LogEventMatcher... logEventMatchersForThisMessage) {
-        this.level = Optional.of(level);
-        this.regex = Optional.of(regex);
-        logEventMatchers = Arrays.asList(logEventMatchersForThisMessage);
+        this(Optional.of(level), Optional.of(regex), logEventMatchersForThisMessage);
     }
 
     private LogExpectation(Level level, LogEventMatcher... logEventMatchersForThisMessage) {
-        this.level = Optional.of(level);
-        regex = Optional.empty();
-        logEventMatchers = Arrays.asList(logEventMatchersForThisMessage);
+        this(Optional.of(level), Optional.empty(), logEventMatchersForThisMessage);
     }
 
     private LogExpectation(String regex, LogEventMatcher... logEventMatchersForThisMessage) {
-        level = Optional.empty();
-        this.regex = Optional.of(regex);
-        logEventMatchers = Arrays.asList(logEventMatchersForThisMessage);
+        this(Optional.empty(), Optional.of(regex), logEventMatchersForThisMessage);
     }
 
     private LogExpectation(LogEventMatcher... logEventMatchersForThisMessage) {
-        level = Optional.empty();
-        regex = Optional.empty();
+        this(Optional.empty(), Optional.empty(), logEventMatchersForThisMessage);
+    }
+
+    private LogExpectation(Optional<Level> level, Optional<String> regex, LogEventMatcher[] logEventMatchersForThisMessage) {
+        this.level = level;
+        this.regex = regex;
+        messagePattern = PatternCache.pattern(regex.orElse(""), Pattern.DOTALL + Pattern.MULTILINE);
         logEventMatchers = Arrays.asList(logEventMatchersForThisMessage);
     }
 
@@ -1,32 +1,40 @@
 package de.dm.infrastructure.logcapture;
 
 import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import org.slf4j.Marker;
 import org.slf4j.event.KeyValuePair;
+import org.slf4j.helpers.MessageFormatter;
 
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import static lombok.AccessLevel.NONE;
 import static lombok.AccessLevel.PRIVATE;
 
 /**
  * represents a captured logged event
  */
-@Builder
 @Getter
 public final class LoggedEvent {
     private final Level level;
-    private final String formattedMessage;
+    @Getter(NONE)
+    private String formattedMessage;
     private final Map<String, String> mdcData;
-    private final Optional<LoggedException> loggedException;
+    @Getter(NONE)
+    private Optional<LoggedException> loggedException;
     private final String loggerName;
     private final List<Marker> markers;
     private final List<KeyValuePair> keyValuePairs;
+    @Getter(NONE)
+    private final Snapshot snapshot;
 
+    @Builder
     private LoggedEvent(Level level,
                         String formattedMessage,
                         Map<String, String> mdcData,
@@ -41,6 +49,73 @@ public final class LoggedEvent {
         this.loggerName = loggerName;
         this.markers = markers;
         this.keyValuePairs = keyValuePairs;
+        snapshot = null;
+    }
+
+    /*
+     * Only takes what would be lost or could change after the logging thread has moved on (like the MDC, that is bound to the
+     * thread). The formatted message and the exception are derived from the snapshot when they are read for the first time.
+     */
+    private LoggedEvent(ILoggingEvent loggingEvent) {
+        level = loggingEvent.getLevel();
+        mdcData = loggingEvent.getMDCPropertyMap();
+        loggerName = loggingEvent.getLoggerName();
+        markers = loggingEvent.getMarkerList();
+        keyValuePairs = loggingEvent.getKeyValuePairs();
+        Object[] argumentArray = loggingEvent.getArgumentArray();
+        snapshot = new Snapshot(loggingEvent.getMessage(),
+                argumentArray == null ? null : argumentArray.clone(),
+                loggingEvent.getThrowableProxy());
+    }
+
+    static LoggedEvent of(ILoggingEvent loggingEvent) {
+        return LoggedEvent.builder()
+                .loggerName(loggingEvent.getLoggerName())
+                .level(loggingEvent.getLevel())
+                .formattedMessage(loggingEvent.getFormattedMessage())
+                .mdcData(loggingEvent.getMDCPropertyMap())
+                .loggedException(LoggedException.of(loggingEvent.getThrowableProxy()))
+                .markers(loggingEvent.getMarkerList())
+                .keyValuePairs(loggingEvent.getKeyValuePairs())
+                .build();
+    }
+
+    static LoggedEvent lazilyOf(ILoggingEvent loggingEvent) {
+        return new LoggedEvent(loggingEvent);
+    }
+
+    /**
+     * @return the logged message with all arguments filled in
+     */
+    public String getFormattedMessage() {
+        // computing it twice in concurrent assertions is harmless, it always yields the same String
+        if (formattedMessage == null && snapshot != null) {
+            formattedMessage = snapshot.formatMessage();
+        }
+        return formattedMessage;
+    }
+
+    /**
+     * @return the logged exception, if any
+     */
+    public Optional<LoggedException> getLoggedException() {
+        if (loggedException == null && snapshot != null) {
+            loggedException = LoggedException.of(snapshot.throwableProxy);
+        }
+        return loggedException;
+    }
+
+    private record Snapshot(String message, Object[] argumentArray, IThrowableProxy throwableProxy) {
+        /*
+         * the same as LoggingEvent.getFormattedMessage(). Logback has already taken a trailing Throwable out of the arguments
+         * when it created the event, so any Throwable that is left is an argument to be formatted like the others.
+         */
+        String formatMessage() {
+            if (argumentArray == null) {
+                return message;
+            }
+            return MessageFormatter.basicArrayFormat(message, argumentArray);
+        }
     }
 
     @SuppressWarnings("squid:S2166") // LoggedException is not an Exception, but the name is still appropriate
@@ -51,5 +126,17 @@ public final class LoggedEvent {
         private final String type; // because IThrowableProxy only offers getClassName() and not getClass()
         private final String message;
         private final Optional<LoggedException> cause;
+
+        static Optional<LoggedException> of(IThrowableProxy throwableProxy) {
+            if (throwableProxy == null) {
+                return Optional.empty();
+            }
+
+            return Optional.of(LoggedException.builder()
+                    .type(throwableProxy.getClassName())
+                    .message(throwableProxy.getMessage())
+                    .cause(of(throwableProxy.getCause()))
+                    .build());
+        }
     }
 }
@@ -0,0 +1,96 @@
+package de.dm.infrastructure.logcapture;
+
+import java.util.List;
+
+/**
+ * evaluates the matchers of an expectation with the cheapest and most selective ones first, since an event is rejected as
+ * soon as one of them does not match.
+ * <p>
+ * Matchers start out ordered by their {@link LogEventMatcher#getMatchingCost() cost hint}. During a scan, the order adapts to
+ * how often each matcher actually rejects events: every 1024 evaluated events, the matchers are sorted by their cost per rejection,
+ * so that a cheap matcher that hardly rejects anything moves behind a slightly more expensive one that rejects most events.
+ * <p>
+ * Matching is bound to a single scan, see {@link TextSearchingMatcher}, so it is not thread safe. Parallel matching uses a
+ * {@link #snapshot()} of the order instead, which holds the matchers themselves.
+ */
+final class MatcherOrder {
+    private static final int EVALUATIONS_BETWEEN_REORDERING = 1024;
+
+    private final LogEventMatcher[] matchers;
+    private final LogEventMatcher[] scanMatchers;
+    private final int[] costs;
+    private final int[] evaluations;
+    private final int[] rejections;
+    private final double[] costsPerRejection;
+    private int evaluationsSinceReordering = 0;
+
+    MatcherOrder(List<LogEventMatcher> logEventMatchers) {
+        matchers = logEventMatchers.toArray(new LogEventMatcher[0]);
+        scanMatchers = new LogEventMatcher[matchers.length];
+        costs = new int[matchers.length];
+        evaluations = new int[matchers.length];
+        rejections = new int[matchers.length];
+        costsPerRejection = new double[matchers.length];
+        for (int i = 0; i < matchers.length; i++) {
+            scanMatchers[i] = TextSearchingMatcher.forScan(matchers[i]);
+            costs[i] = Math.max(1, matchers[i].getMatchingCost());
+        }
+        reorder();
+    }
+
+    boolean matches(LoggedEvent loggedEvent) {
+        if (++evaluationsSinceReordering == EVALUATIONS_BETWEEN_REORDERING) {
+            reorder();
+        }
+        for (int i = 0; i < matchers.length; i++) {
+            evaluations[i]++;
+            if (!scanMatchers[i].matches(loggedEvent)) {
+                rejections[i]++;
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * the matchers in their current order
+     */
+    LogEventMatcher[] snapshot() {
+        return matchers.clone();
+    }
+
+    // insertion sort, since there are only a few matchers and it neither allocates nor changes the order of equal ones
+    private void reorder() {
+        evaluationsSinceReordering = 0;
+        for (int i = 0; i < matchers.length; i++) {
+            // smoothed, so that matchers without observations are ordered by their cost
+            costsPerRejection[i] = costs[i] * (evaluations[i] + 2.0) / (rejections[i] + 1.0);
+        }
+        for (int i = 1; i < matchers.length; i++) {
+            for (int j = i; j > 0 && costsPerRejection[j] < costsPerRejection[j - 1]; j--) {
+                swap(j, j - 1);
+            }
+        }
+    }
+
+    private void swap(int i, int j) {
+        LogEventMatcher matcher = matchers[i];
+        matchers[i] = matchers[j];
+        matchers[j] = matcher;
+        LogEventMatcher scanMatcher = scanMatchers[i];
+        scanMatchers[i] = scanMatchers[j];
+        scanMatchers[j] = scanMatcher;
+        int cost = costs[i];
+        costs[i] = costs[j];
+        costs[j] = cost;
+        int evaluationsOfI = evaluations[i];
+        evaluations[i] = evaluations[j];
+        evaluations[j] = evaluationsOfI;
+        int rejectionsOfI = rejections[i];
+        rejections[i] = rejections[j];
+        rejections[j] = rejectionsOfI;
+        double costPerRejection = costsPerRejection[i];
+        costsPerRejection[i] = costsPerRejection[j];
+        costsPerRejection[j] = costPerRejection;
+    }
+}
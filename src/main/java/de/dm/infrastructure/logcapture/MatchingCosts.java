@@ -0,0 +1,17 @@
+package de.dm.infrastructure.logcapture;
+
+/**
+ * cost hints of the built-in matchers, see {@link LogEventMatcher#getMatchingCost()}
+ */
+final class MatchingCosts {
+    // searching plain text or looking up a key
+    static final int TEXT = 10;
+    static final int REGEX = 30;
+    // matchers without a hint, like custom ones
+    static final int UNKNOWN = 50;
+    // loads the logged exception's class and walks its causes
+    static final int EXCEPTION = 100;
+
+    private MatchingCosts() {
+    }
+}
@@ -0,0 +1,119 @@
+package de.dm.infrastructure.logcapture;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * trigrams of captured messages, so that expectations with a required text (see {@link TextPattern#requiredLiteral()}) skip
+ * events that cannot contain it before running the regex.
+ * <p>
+ * Captured events are grouped into blocks of 64, and each block keeps a filter of 4096 bits with one bit per hashed trigram
+ * of its messages. A block whose filter misses a trigram of the required text cannot contain it. That is 8 bytes per event,
+ * which is less than any message takes, at the cost of some blocks that are looked at without containing the text.
+ * <p>
+ * Long messages would set most bits of their block's filter, which then filters nothing, while hashing them takes long. So
+ * once half of a block's bits are set (or a single message has more trigrams than that), the block is no longer hashed
+ * and always looked at.
+ * <p>
+ * Like {@link LevelIndex}, each query indexes the events that have been captured since the previous one.
+ */
+final class MessageIndex {
+    private static final int BLOCK_SIZE = 64;
+    private static final int FILTER_BITS = 4096;
+    private static final int FILTER_LONGS = FILTER_BITS / Long.SIZE;
+    private static final int HASH_SHIFT = Integer.SIZE - Integer.numberOfTrailingZeros(FILTER_BITS);
+    private static final int TRIGRAM_LENGTH = 3;
+    private static final int MAX_SET_BITS = FILTER_BITS / 2;
+    private static final int SATURATED = -1;
+
+    private final List<LoggedEvent> loggedEvents;
+    private long[] filters = new long[16 * FILTER_LONGS];
+    // number of set bits per block, or SATURATED
+    private int[] setBits = new int[16];
+    private int numberOfIndexedEvents = 0;
+
+    MessageIndex(List<LoggedEvent> loggedEvents) {
+        this.loggedEvents = loggedEvents;
+    }
+
+    /*
+     * returns the positions of events that may contain the required text, or null if the text is too short to narrow them down
+     */
+    synchronized EventPositions candidatePositions(String requiredLiteral) {
+        if (requiredLiteral.length() < TRIGRAM_LENGTH) {
+            return null;
+        }
+        indexNewEvents();
+        int[] bits = trigramBits(requiredLiteral);
+        int[] positions = new int[numberOfIndexedEvents];
+        int size = 0;
+        for (int block = 0; block * BLOCK_SIZE < numberOfIndexedEvents; block++) {
+            if (setBits[block] == SATURATED || filterContainsAll(block, bits)) {
+                int end = Math.min((block + 1) * BLOCK_SIZE, numberOfIndexedEvents);
+                for (int position = block * BLOCK_SIZE; position < end; position++) {
+                    positions[size++] = position;
+                }
+            }
+        }
+        return size == numberOfIndexedEvents ? EventPositions.range(0, size) : EventPositions.of(positions, size);
+    }
+
+    private void indexNewEvents() {
+        int numberOfEvents = loggedEvents.size();
+        int neededLongs = (numberOfEvents + BLOCK_SIZE - 1) / BLOCK_SIZE * FILTER_LONGS;
+        if (neededLongs > filters.length) {
+            filters = Arrays.copyOf(filters, Math.max(neededLongs, filters.length * 2));
+            setBits = Arrays.copyOf(setBits, filters.length / FILTER_LONGS);
+        }
+        for (int position = numberOfIndexedEvents; position < numberOfEvents; position++) {
+            if (setBits[position / BLOCK_SIZE] != SATURATED) {
+                index(loggedEvents.get(position).getFormattedMessage(), position / BLOCK_SIZE);
+            }
+        }
+        numberOfIndexedEvents = numberOfEvents;
+    }
+
+    private void index(String message, int block) {
+        if (message == null) {
+            return;
+        }
+        if (message.length() - TRIGRAM_LENGTH + 1 > MAX_SET_BITS) {
+            setBits[block] = SATURATED;
+            return;
+        }
+        int filterStart = block * FILTER_LONGS;
+        for (int i = 0; i + TRIGRAM_LENGTH <= message.length(); i++) {
+            int bit = hash(message.charAt(i), message.charAt(i + 1), message.charAt(i + 2));
+            long filter = filters[filterStart + (bit >>> 6)];
+            if ((filter & 1L << bit) == 0) {
+                filters[filterStart + (bit >>> 6)] = filter | 1L << bit;
+                if (++setBits[block] > MAX_SET_BITS) {
+                    setBits[block] = SATURATED;
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean filterContainsAll(int block, int[] bits) {
+        int filterStart = block * FILTER_LONGS;
+        for (int bit : bits) {
+            if ((filters[filterStart + (bit >>> 6)] & 1L << bit) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int[] trigramBits(String text) {
+        int[] bits = new int[text.length() - TRIGRAM_LENGTH + 1];
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = hash(text.charAt(i), text.charAt(i + 1), text.charAt(i + 2));
+        }
+        return bits;
+    }
+
+    private static int hash(char first, char second, char third) {
+        return ((first * 31 + second) * 31 + third) * 0x9E3779B9 >>> HASH_SHIFT;
+    }
+}
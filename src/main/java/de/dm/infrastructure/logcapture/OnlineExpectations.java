@@ -0,0 +1,118 @@
+package de.dm.infrastructure.logcapture;
+
+import ch.qos.logback.classic.Level;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.lang.String.format;
+
+/**
+ * expectations that are checked while log events are captured instead of afterwards, see {@link LogCapture#expectNever(LogExpectation...)}
+ * and {@link LogCapture#expectWithin(Duration, LogExpectation)}.
+ * <p>
+ * Log events are checked on the thread that logs them. A violation is not thrown there, since the code under test might
+ * catch it or lose the thread. Instead, the first one is kept and thrown by the next assertion or at the end of the test.
+ * It is created on the logging thread, so its stack trace shows where the offending message has been logged.
+ */
+final class OnlineExpectations {
+    private final List<Expectation> expectations = new CopyOnWriteArrayList<>();
+    private final AtomicReference<AssertionError> firstViolation = new AtomicReference<>();
+
+    void expectNever(LogExpectation logExpectation) {
+        expectations.add(new Expectation(logExpectation, null));
+    }
+
+    void expectWithin(Duration timeout, LogExpectation logExpectation) {
+        expectations.add(new Expectation(logExpectation, timeout));
+    }
+
+    /*
+     * called on the logging thread for every captured event
+     */
+    void check(LoggedEvent loggedEvent) {
+        for (Expectation expectation : expectations) {
+            if (expectation.isPending() && expectation.matches(loggedEvent)) {
+                expectation.logged(loggedEvent);
+            }
+        }
+    }
+
+    void assertNoViolation() {
+        AssertionError violation = firstViolation.get();
+        if (violation != null) {
+            throw violation;
+        }
+    }
+
+    /*
+     * waits until each expectWithin() expectation has been met or its time is up
+     */
+    void assertMet() {
+        assertNoViolation();
+        for (Expectation expectation : expectations) {
+            expectation.await();
+        }
+        assertNoViolation();
+    }
+
+    private void violate(String message) {
+        firstViolation.compareAndSet(null, new AssertionError(message));
+    }
+
+    private final class Expectation {
+        private final LogExpectation logExpectation;
+        private final Level expectedLevel;
+        private final LogEventMatcher[] matchers;
+        private final Duration timeout;
+        private final long deadline;
+        private final CountDownLatch pending = new CountDownLatch(1);
+
+        // a null timeout means that the expected message must never be logged
+        private Expectation(LogExpectation logExpectation, Duration timeout) {
+            this.logExpectation = logExpectation;
+            expectedLevel = logExpectation.level.orElse(null);
+            // ordered by cost, but not adapting, since events are checked by many threads at once
+            matchers = new MatcherOrder(logExpectation.logEventMatchers).snapshot();
+            this.timeout = timeout;
+            deadline = timeout == null ? 0 : System.nanoTime() + timeout.toNanos();
+        }
+
+        private boolean isPending() {
+            return pending.getCount() > 0;
+        }
+
+        private boolean matches(LoggedEvent loggedEvent) {
+            return LogAsserter.isCompleteMatch(loggedEvent, expectedLevel, logExpectation.messagePattern, matchers);
+        }
+
+        private void logged(LoggedEvent loggedEvent) {
+            if (timeout == null) {
+                violate(format("Found a log message that should never be logged.%s  logged by thread \"%s\": \"%s\"",
+                        LogAsserter.getDescription(logExpectation), Thread.currentThread().getName(), loggedEvent.getFormattedMessage()));
+            } else if (System.nanoTime() - deadline > 0) {
+                violate(format("Expected log message has been logged later than %s.%s  logged by thread \"%s\": \"%s\"",
+                        timeout, LogAsserter.getDescription(logExpectation), Thread.currentThread().getName(), loggedEvent.getFormattedMessage()));
+            }
+            pending.countDown();
+        }
+
+        private void await() {
+            if (timeout == null) {
+                return;
+            }
+            try {
+                if (!pending.await(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    violate(format("Expected log message has not been logged within %s.%s", timeout, LogAsserter.getDescription(logExpectation)));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                violate(format("Interrupted while waiting for expected log message.%s", LogAsserter.getDescription(logExpectation)));
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package de.dm.infrastructure.logcapture;
+
+/**
+ * defines what happens when a bounded capture is full, see {@link LogCapture#withCapacity(int, OverflowPolicy)}
+ */
+public enum OverflowPolicy {
+    /**
+     * forget the oldest captured events to make room for new ones
+     */
+    DROP_OLDEST,
+    /**
+     * keep the events that have already been captured and stop capturing new ones
+     */
+    DROP_NEWEST,
+    /**
+     * stop capturing new events, like {@link #DROP_NEWEST}, and fail the test
+     */
+    FAIL
+}
@@ -0,0 +1,103 @@
+package de.dm.infrastructure.logcapture;
+
+import ch.qos.logback.classic.Level;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * decides if a logger belongs to one of the captured packages, and at which level it is captured.
+ * <p>
+ * Package names are split into segments like logback does for its logger hierarchy (at '.' and '$'), so "de.dm" covers
+ * "de.dm" and "de.dm.foo.Bar", but not "de.dmx". Like in logback, a logger is captured at the level of the most specific
+ * package that has one. Since the number of distinct logger names in a JVM is small, decisions are cached by logger name and
+ * the trie is only walked for loggers that have not been seen before.
+ */
+final class PackageTrie {
+    private static final int MAX_CACHED_DECISIONS = 10_000;
+    // cached for loggers that are not captured, since the cache cannot hold null
+    private static final Level NOT_CAPTURED = Level.OFF;
+
+    private final Node root = new Node();
+    private final Map<String, Level> decisions = new ConcurrentHashMap<>();
+
+    /*
+     * captures all levels of these packages
+     */
+    PackageTrie(Set<String> packageNames) {
+        packageNames.forEach(packageName -> add(packageName, Level.TRACE));
+    }
+
+    PackageTrie(Map<String, Level> levelsByPackageName) {
+        levelsByPackageName.forEach(this::add);
+    }
+
+    boolean covers(String loggerName) {
+        return captureLevel(loggerName) != null;
+    }
+
+    /*
+     * the level that a logger is captured at, or null if it is not captured
+     */
+    Level captureLevel(String loggerName) {
+        Level decision = decisions.get(loggerName);
+        if (decision == null) {
+            decision = walk(loggerName);
+            if (decisions.size() < MAX_CACHED_DECISIONS) {
+                decisions.put(loggerName, decision);
+            }
+        }
+        return decision == NOT_CAPTURED ? null : decision;
+    }
+
+    private void add(String packageName, Level level) {
+        Node node = root;
+        int segmentStart = 0;
+        while (segmentStart <= packageName.length()) {
+            int segmentEnd = nextSeparator(packageName, segmentStart);
+            if (segmentEnd > segmentStart) {
+                node = node.children.computeIfAbsent(packageName.substring(segmentStart, segmentEnd), segment -> new Node());
+            }
+            segmentStart = segmentEnd + 1;
+        }
+        node.level = level;
+    }
+
+    private Level walk(String loggerName) {
+        Node node = root;
+        Level level = root.level == null ? NOT_CAPTURED : root.level;
+        int segmentStart = 0;
+        while (segmentStart <= loggerName.length()) {
+            int segmentEnd = nextSeparator(loggerName, segmentStart);
+            if (segmentEnd > segmentStart) {
+                node = node.children.get(loggerName.substring(segmentStart, segmentEnd));
+                if (node == null) {
+                    return level;
+                }
+                if (node.level != null) {
+                    level = node.level;
+                }
+            }
+            segmentStart = segmentEnd + 1;
+        }
+        return level;
+    }
+
+    private static int nextSeparator(String name, int fromIndex) {
+        for (int i = fromIndex; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '.' || c == '$') {
+                return i;
+            }
+        }
+        return name.length();
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        // null if the package is not captured itself
+        private Level level;
+    }
+}
@@ -0,0 +1,37 @@
+package de.dm.infrastructure.logcapture;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * compiles the patterns of expectations once and shares them across tests, since test suites tend to use the same
+ * expectations over and over again (for example in parameterized tests).
+ * <p>
+ * Expectations match if their regex is found anywhere, so regexes are searched with {@link java.util.regex.Matcher#find()}.
+ * This used to be done by padding the regex with .* on both sides and matching the whole input. With DOTALL, that makes
+ * the regex engine try every position of the input for the leading .* and backtrack from its end, which gets very slow
+ * for large inputs. find() scans the input once, and anchors like ^ and $ still work as before.
+ * <p>
+ * The cache is bounded. When it is full, further patterns are compiled without being cached.
+ */
+final class PatternCache {
+    private static final int MAX_CACHED_PATTERNS = 4_096;
+    private static final Map<Key, TextPattern> PATTERNS = new ConcurrentHashMap<>();
+
+    private PatternCache() {
+    }
+
+    static TextPattern pattern(String regex, int flags) {
+        Key key = new Key(regex, flags);
+        TextPattern pattern = PATTERNS.get(key);
+        if (pattern == null) {
+            pattern = TextPattern.compile(regex, flags);
+            if (PATTERNS.size() < MAX_CACHED_PATTERNS) {
+                PATTERNS.put(key, pattern);
+            }
+        }
+        return pattern;
+    }
+
+    private record Key(String regex, int flags) {}
+}
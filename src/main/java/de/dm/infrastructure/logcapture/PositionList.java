@@ -0,0 +1,28 @@
+package de.dm.infrastructure.logcapture;
+
+import java.util.Arrays;
+
+/**
+ * ascending positions of captured events that an index collects. Positions that have been handed out as
+ * {@link EventPositions} never change, since positions are only added behind them.
+ */
+final class PositionList {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] positions = new int[INITIAL_CAPACITY];
+    private int size = 0;
+
+    void add(int position) {
+        if (size > 0 && positions[size - 1] == position) {
+            return;
+        }
+        if (size == positions.length) {
+            positions = Arrays.copyOf(positions, size * 2);
+        }
+        positions[size++] = position;
+    }
+
+    EventPositions toEventPositions() {
+        return EventPositions.of(positions, size);
+    }
+}
@@ -0,0 +1,142 @@
+package de.dm.infrastructure.logcapture;
+
+import java.util.regex.Pattern;
+
+/**
+ * finds the longest plain text that every match of a regex contains, like {@code "order "} and {@code " processed"} in
+ * {@code "order [0-9]+ processed"}. Texts without it cannot match, so they can be ruled out without the regex engine.
+ * <p>
+ * This is deliberately conservative: regexes with alternations, inline flags or escapes that are not fully understood
+ * here have no required literal, and neither does anything inside groups or character classes.
+ */
+final class RequiredLiteral {
+    static final String NONE = "";
+
+    private static final String SIMPLE_ESCAPES = "dDwWsSbBAzZGhHvVRX";
+
+    private final String regex;
+    private int position = 0;
+    private final StringBuilder currentRun = new StringBuilder();
+    private String longestRun = NONE;
+
+    private RequiredLiteral(String regex) {
+        this.regex = regex;
+    }
+
+    static String of(Pattern pattern) {
+        String regex = pattern.pattern();
+        if ((pattern.flags() & ~TextPattern.FLAGS_WITHOUT_EFFECT_ON_LITERALS) != 0 || regex.contains("|") || regex.contains("(?") || regex.contains("\\Q")) {
+            return NONE;
+        }
+        return new RequiredLiteral(regex).find();
+    }
+
+    private String find() {
+        while (position < regex.length()) {
+            char character = regex.charAt(position++);
+            switch (character) {
+                case '\\' -> {
+                    if (position == regex.length()) {
+                        return NONE;
+                    }
+                    char escaped = regex.charAt(position++);
+                    if (Character.isLetterOrDigit(escaped)) {
+                        if (SIMPLE_ESCAPES.indexOf(escaped) < 0) {
+                            return NONE;
+                        }
+                        endRun();
+                    } else {
+                        currentRun.append(escaped);
+                    }
+                }
+                case '[' -> {
+                    endRun();
+                    skipCharacterClass();
+                }
+                case '(' -> {
+                    endRun();
+                    skipGroup();
+                }
+                case '?', '*' -> {
+                    dropLastCharacter();
+                    endRun();
+                    skipQuantifierModifier();
+                }
+                case '{' -> {
+                    dropLastCharacter();
+                    endRun();
+                    skipPast('}');
+                    skipQuantifierModifier();
+                }
+                case '+' -> {
+                    endRun();
+                    skipQuantifierModifier();
+                }
+                case '.', '^', '$' -> endRun();
+                default -> currentRun.append(character);
+            }
+        }
+        endRun();
+        return longestRun;
+    }
+
+    private void endRun() {
+        if (currentRun.length() > longestRun.length()) {
+            longestRun = currentRun.toString();
+        }
+        currentRun.setLength(0);
+    }
+
+    // the quantified character is optional or may be repeated, so it ends the run before it
+    private void dropLastCharacter() {
+        if (!currentRun.isEmpty()) {
+            currentRun.setLength(currentRun.length() - 1);
+        }
+    }
+
+    private void skipQuantifierModifier() {
+        if (position < regex.length() && (regex.charAt(position) == '?' || regex.charAt(position) == '+')) {
+            position++;
+        }
+    }
+
+    private void skipPast(char end) {
+        while (position < regex.length() && regex.charAt(position++) != end) {
+            // skipping
+        }
+    }
+
+    private void skipCharacterClass() {
+        if (position < regex.length() && regex.charAt(position) == '^') {
+            position++;
+        }
+        if (position < regex.length() && regex.charAt(position) == ']') {
+            position++;
+        }
+        while (position < regex.length()) {
+            char character = regex.charAt(position++);
+            if (character == '\\') {
+                position++;
+            } else if (character == '[') {
+                skipCharacterClass();
+            } else if (character == ']') {
+                return;
+            }
+        }
+    }
+
+    private void skipGroup() {
+        while (position < regex.length()) {
+            char character = regex.charAt(position++);
+            if (character == '\\') {
+                position++;
+            } else if (character == '[') {
+                skipCharacterClass();
+            } else if (character == '(') {
+                skipGroup();
+            } else if (character == ')') {
+                return;
+            }
+        }
+    }
+}
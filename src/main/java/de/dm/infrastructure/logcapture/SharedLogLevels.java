@@ -0,0 +1,76 @@
+package de.dm.infrastructure.logcapture;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * changes the levels of captured packages on behalf of all active captures. If captures that run in parallel request levels
+ * for the same package, the most verbose one is set, and the original level is only restored when the last of them ends.
+ * <p>
+ * The levels of a logger context are only kept while levels are requested for it, so that the context can be garbage
+ * collected afterwards.
+ */
+final class SharedLogLevels {
+    private static final Map<LoggerContext, SharedLogLevels> SHARED_LOG_LEVELS = new HashMap<>();
+
+    private final LoggerContext loggerContext;
+    private final Map<String, Level> originalLevels = new HashMap<>();
+    private final Map<String, List<Level>> requestedLevels = new HashMap<>();
+
+    private SharedLogLevels(LoggerContext loggerContext) {
+        this.loggerContext = loggerContext;
+    }
+
+    static synchronized void request(LoggerContext loggerContext, Map<String, Level> levels) {
+        SHARED_LOG_LEVELS.computeIfAbsent(loggerContext, SharedLogLevels::new).requestLevels(levels);
+    }
+
+    static synchronized void release(LoggerContext loggerContext, Map<String, Level> levels) {
+        SharedLogLevels sharedLogLevels = SHARED_LOG_LEVELS.get(loggerContext);
+        if (sharedLogLevels != null) {
+            sharedLogLevels.releaseLevels(levels);
+            if (sharedLogLevels.requestedLevels.isEmpty()) {
+                SHARED_LOG_LEVELS.remove(loggerContext);
+            }
+        }
+    }
+
+    private void requestLevels(Map<String, Level> levels) {
+        levels.forEach((packageName, level) -> {
+            Logger logger = loggerContext.getLogger(packageName);
+            if (!requestedLevels.containsKey(packageName)) {
+                originalLevels.put(packageName, logger.getLevel());
+            }
+            List<Level> levelsForPackage = requestedLevels.computeIfAbsent(packageName, name -> new ArrayList<>());
+            levelsForPackage.add(level);
+            logger.setLevel(mostVerbose(levelsForPackage));
+        });
+    }
+
+    private void releaseLevels(Map<String, Level> levels) {
+        levels.forEach((packageName, level) -> {
+            List<Level> levelsForPackage = requestedLevels.get(packageName);
+            if (levelsForPackage == null || !levelsForPackage.remove(level)) {
+                return;
+            }
+            Logger logger = loggerContext.getLogger(packageName);
+            if (levelsForPackage.isEmpty()) {
+                requestedLevels.remove(packageName);
+                logger.setLevel(originalLevels.remove(packageName));
+            } else {
+                logger.setLevel(mostVerbose(levelsForPackage));
+            }
+        });
+    }
+
+    private static Level mostVerbose(List<Level> levels) {
+        return levels.stream().min(Comparator.comparingInt(Level::toInt)).orElseThrow();
+    }
+}
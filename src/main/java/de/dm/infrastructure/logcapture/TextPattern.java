@@ -0,0 +1,117 @@
+package de.dm.infrastructure.logcapture;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * a regex of an expectation, to be searched for anywhere in a text (like a log message or an MDC value).
+ * <p>
+ * Most expectations are plain text like {@code info("order processed")}. Those are detected when the expectation is
+ * created and searched with {@link String#indexOf(String)}, which the JVM implements with vectorized intrinsics,
+ * instead of going through the regex engine.
+ */
+interface TextPattern {
+    String REGEX_METACHARACTERS = "\\^$.|?*+()[]{}";
+    int FLAGS_WITHOUT_EFFECT_ON_LITERALS = Pattern.DOTALL | Pattern.MULTILINE;
+
+    boolean isFoundIn(String text);
+
+    /*
+     * text that each text this pattern is found in contains, or RequiredLiteral.NONE if there is no such text
+     */
+    String requiredLiteral();
+
+    /*
+     * cost hint for matchers that search this pattern, see LogEventMatcher.getMatchingCost()
+     */
+    int matchingCost();
+
+    /*
+     * a copy of this pattern for a single scan over captured events. It may keep state from one searched text to the next,
+     * so it must only be used by the thread that scans.
+     */
+    TextPattern forScan();
+
+    static TextPattern compile(String regex, int flags) {
+        if (isLiteral(regex) && (flags & ~FLAGS_WITHOUT_EFFECT_ON_LITERALS) == 0) {
+            return new Literal(regex);
+        }
+        return new Regex(Pattern.compile(regex, flags));
+    }
+
+    private static boolean isLiteral(String regex) {
+        for (int i = 0; i < regex.length(); i++) {
+            if (REGEX_METACHARACTERS.indexOf(regex.charAt(i)) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    record Literal(String literal) implements TextPattern {
+        @Override
+        public boolean isFoundIn(String text) {
+            return text.contains(literal);
+        }
+
+        @Override
+        public String requiredLiteral() {
+            return literal;
+        }
+
+        @Override
+        public int matchingCost() {
+            return MatchingCosts.TEXT;
+        }
+
+        @Override
+        public TextPattern forScan() {
+            return this;
+        }
+    }
+
+    /**
+     * Patterns are shared between threads, so they create a matcher for each searched text. A copy {@link #forScan() for a
+     * scan} reuses one matcher instead, so that scanning does not allocate for each captured event.
+     */
+    final class Regex implements TextPattern {
+        private final Pattern pattern;
+        // only set for a scan, which is confined to one thread
+        private final Matcher matcher;
+
+        Regex(Pattern pattern) {
+            this(pattern, null);
+        }
+
+        private Regex(Pattern pattern, Matcher matcher) {
+            this.pattern = pattern;
+            this.matcher = matcher;
+        }
+
+        @Override
+        public boolean isFoundIn(String text) {
+            if (matcher == null) {
+                return pattern.matcher(text).find();
+            }
+            boolean found = matcher.reset(text).find();
+            // so that the matcher does not keep the text reachable
+            matcher.reset("");
+            return found;
+        }
+
+        @Override
+        public String requiredLiteral() {
+            return RequiredLiteral.of(pattern);
+        }
+
+        @Override
+        public int matchingCost() {
+            return MatchingCosts.REGEX;
+        }
+
+        @Override
+        public TextPattern forScan() {
+            return new Regex(pattern, pattern.matcher(""));
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package de.dm.infrastructure.logcapture;
+
+/**
+ * a matcher that searches a {@link TextPattern}. Scans over captured events use a copy of it that is bound to the scan, see
+ * {@link TextPattern#forScan()}.
+ */
+interface TextSearchingMatcher extends LogEventMatcher {
+    LogEventMatcher forScan();
+
+    static LogEventMatcher forScan(LogEventMatcher logEventMatcher) {
+        return logEventMatcher instanceof TextSearchingMatcher textSearchingMatcher ? textSearchingMatcher.forScan() : logEventMatcher;
+    }
+}
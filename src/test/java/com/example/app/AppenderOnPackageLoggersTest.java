@@ -0,0 +1,70 @@
+package com.example.app;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import de.dm.infrastructure.logcapture.LogCapture;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static de.dm.infrastructure.logcapture.ExpectedTimes.once;
+import static de.dm.infrastructure.logcapture.LogExpectation.info;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.slf4j.Logger.ROOT_LOGGER_NAME;
+
+@Slf4j
+class AppenderOnPackageLoggersTest {
+
+    @Test
+    void capturesOnlyCapturedPackagesWithoutRootAppender() {
+        LogCapture logCapture = LogCapture.forPackages("com.example.app").withAppenderOnPackageLoggers();
+        List<Appender<ILoggingEvent>> rootAppendersBefore = getRootAppenders();
+        logCapture.addAppenderAndSetLogLevelToTrace();
+        List<Appender<ILoggingEvent>> rootAppendersWhileCapturing = getRootAppenders();
+        log.info("hello from com.example.app");
+        LoggerFactory.getLogger("org.other.Service").info("hello from elsewhere");
+        logCapture.removeAppenderAndResetLogLevel();
+
+        assertThat(rootAppendersWhileCapturing).isEqualTo(rootAppendersBefore);
+        logCapture.assertLogged(info("hello from com.example.app")).assertNothingElseLogged();
+    }
+
+    @Test
+    void nestedCapturedPackagesCaptureOnlyOnce() {
+        LogCapture logCapture = LogCapture.forPackages("com.example.app", "com.example.app.nested").withAppenderOnPackageLoggers();
+        logCapture.addAppenderAndSetLogLevelToTrace();
+        LoggerFactory.getLogger("com.example.app.nested.Service").info("hello from nested package");
+        logCapture.removeAppenderAndResetLogLevel();
+
+        logCapture.assertLogged(once(), info("hello from nested package"));
+    }
+
+    @Test
+    void capturesNonAdditiveLoggersOnce() {
+        Logger nonAdditiveLogger = (Logger) LoggerFactory.getLogger("com.example.app.quiet");
+        Logger nestedInNonAdditiveLogger = (Logger) LoggerFactory.getLogger("com.example.app.quiet.nested");
+        nonAdditiveLogger.setAdditive(false);
+        try {
+            LogCapture logCapture = LogCapture.forPackages("com.example.app", "com.example.app.quiet.nested").withAppenderOnPackageLoggers();
+            logCapture.addAppenderAndSetLogLevelToTrace();
+            nonAdditiveLogger.info("hello from non-additive logger");
+            nestedInNonAdditiveLogger.info("hello from below non-additive logger");
+            logCapture.removeAppenderAndResetLogLevel();
+
+            logCapture.assertLogged(once(), info("hello from non-additive logger"));
+            logCapture.assertLogged(once(), info("hello from below non-additive logger"));
+        } finally {
+            nonAdditiveLogger.setAdditive(true);
+        }
+    }
+
+    private static List<Appender<ILoggingEvent>> getRootAppenders() {
+        List<Appender<ILoggingEvent>> appenders = new ArrayList<>();
+        ((Logger) LoggerFactory.getLogger(ROOT_LOGGER_NAME)).iteratorForAppenders().forEachRemaining(appenders::add);
+        return appenders;
+    }
+}
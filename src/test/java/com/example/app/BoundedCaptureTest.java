@@ -0,0 +1,110 @@
+package com.example.app;
+
+import de.dm.infrastructure.logcapture.LogCapture;
+import de.dm.infrastructure.logcapture.LogCaptureExtension;
+import de.dm.infrastructure.logcapture.LogCapturePackages;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static de.dm.infrastructure.logcapture.ExpectedTimes.times;
+import static de.dm.infrastructure.logcapture.LogCapture.logCapture;
+import static de.dm.infrastructure.logcapture.LogExpectation.info;
+import static de.dm.infrastructure.logcapture.OverflowPolicy.DROP_NEWEST;
+import static de.dm.infrastructure.logcapture.OverflowPolicy.DROP_OLDEST;
+import static de.dm.infrastructure.logcapture.OverflowPolicy.FAIL;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Slf4j
+@SuppressWarnings({
+        "java:S5778", //this rule does not increase the clarity of these tests
+        "LoggingSimilarMessage" // not a sensible rule for a logging test
+})
+class BoundedCaptureTest {
+
+    LogCapture logCapture = LogCapture.forCurrentPackage();
+
+    @Test
+    void dropOldestKeepsLatestMessages() {
+        logCapture.withCapacity(2, DROP_OLDEST).addAppenderAndSetLogLevelToTrace();
+        log.info("hello 1");
+        log.info("hello 2");
+        log.info("hello 3");
+        logCapture.removeAppenderAndResetLogLevel();
+
+        logCapture.assertLoggedInOrder(
+                info("hello 2"),
+                info("hello 3"));
+        var assertionError = assertThrows(AssertionError.class, () -> logCapture.assertLogged(info("hello 1")));
+
+        assertThat(assertionError).hasMessage("""
+                Expected log message has not occurred.
+                message: INFO "hello 1" (regex)
+                Note: 1 log messages have been dropped because the capture is bounded to 2 messages (DROP_OLDEST). The expected message may have been among them.
+                """);
+    }
+
+    @Test
+    void dropNewestKeepsFirstMessages() {
+        logCapture.withCapacity(2, DROP_NEWEST).addAppenderAndSetLogLevelToTrace();
+        log.info("hello 1");
+        log.info("hello 2");
+        log.info("hello 3");
+        logCapture.removeAppenderAndResetLogLevel();
+
+        logCapture.assertLogged(times(2), info("hello [12]"));
+        var assertionError = assertThrows(AssertionError.class, () -> logCapture.assertLogged(times(1), info("hello 3")));
+
+        assertThat(assertionError).hasMessage("""
+                Expected log message has not occurred exactly 1 time(s)
+                actual occurrences: 0
+                message: INFO "hello 3" (regex)
+                Note: 1 log messages have been dropped because the capture is bounded to 2 messages (DROP_NEWEST). The expected message may have been among them.
+                """);
+    }
+
+    @Test
+    void droppedMessagesCountAsSomethingElseLogged() {
+        logCapture.withCapacity(1, DROP_OLDEST).addAppenderAndSetLogLevelToTrace();
+        log.info("hello 1");
+        log.info("hello 2");
+        logCapture.removeAppenderAndResetLogLevel();
+
+        var assertionError = assertThrows(AssertionError.class, () -> logCapture.assertLogged(info("hello 2")).assertNothingElseLogged());
+
+        assertThat(assertionError).hasMessage("There have been other log messages than the asserted ones.");
+    }
+
+    @Test
+    void failPolicyFailsAssertions() {
+        logCapture.withCapacity(1, FAIL).addAppenderAndSetLogLevelToTrace();
+        log.info("hello 1");
+        log.info("hello 2");
+        logCapture.removeAppenderAndResetLogLevel();
+
+        var assertionError = assertThrows(AssertionError.class, () -> logCapture.assertLogged(info("hello 1")));
+
+        assertThat(assertionError).hasMessage("More log messages have been captured than the capacity of 1 allows. 1 more have been dropped.");
+    }
+
+    @Test
+    void capacityMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> logCapture.withCapacity(0, DROP_OLDEST));
+    }
+
+    @Nested
+    @ExtendWith(LogCaptureExtension.class)
+    @LogCapturePackages(value = "com.example.app", capacity = 1)
+    class WithAnnotation {
+        @Test
+        void capacityIsTakenFromAnnotation() {
+            log.info("hello 1");
+            log.info("hello 2");
+
+            logCapture().assertLogged(info("hello 2"));
+            assertThrows(AssertionError.class, () -> logCapture().assertLogged(info("hello 1")));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.app;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import de.dm.infrastructure.logcapture.LogCapture;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+
+import static de.dm.infrastructure.logcapture.LogExpectation.debug;
+import static de.dm.infrastructure.logcapture.LogExpectation.info;
+import static de.dm.infrastructure.logcapture.LogExpectation.trace;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+class CaptureFilterTest {
+
+    private final Logger packageLogger = (Logger) LoggerFactory.getLogger("com.example.app");
+
+    @Test
+    void capturesWithoutChangingLevels() {
+        Level originalLevel = packageLogger.getLevel();
+        LogCapture logCapture = LogCapture.forCurrentPackage().withCaptureFilter();
+        logCapture.addAppenderAndSetLogLevelToTrace();
+        Level levelWhileCapturing = packageLogger.getLevel();
+        log.trace("hello trace");
+        LoggerFactory.getLogger("org.other.Service").debug("hello from elsewhere");
+        logCapture.removeAppenderAndResetLogLevel();
+
+        assertThat(levelWhileCapturing).isEqualTo(originalLevel);
+        logCapture.assertLogged(trace("hello trace")).assertNothingElseLogged();
+    }
+
+    @Test
+    void respectsCaptureLevels() {
+        LogCapture logCapture = LogCapture.forCurrentPackage()
+                .withCaptureFilter()
+                .withCaptureLevel(Level.DEBUG)
+                .withCaptureLevels(Map.of("com.example.app.payload", Level.INFO));
+        logCapture.addAppenderAndSetLogLevelToTrace();
+        log.trace("hello trace");
+        log.debug("hello debug");
+        LoggerFactory.getLogger("com.example.app.payload.Dumper").debug("payload dump");
+        LoggerFactory.getLogger("com.example.app.payload.Dumper").info("payload summary");
+        logCapture.removeAppenderAndResetLogLevel();
+
+        logCapture.assertLoggedInOrder(
+                        debug("hello debug"),
+                        info("payload summary"))
+                .assertNothingElseLogged();
+    }
+
+    @Test
+    void removesFilterAfterCapturing() {
+        LoggerContext loggerContext = packageLogger.getLoggerContext();
+        int numberOfTurboFilters = loggerContext.getTurboFilterList().size();
+        LogCapture logCapture = LogCapture.forCurrentPackage().withCaptureFilter();
+        logCapture.addAppenderAndSetLogLevelToTrace();
+        int numberOfTurboFiltersWhileCapturing = loggerContext.getTurboFilterList().size();
+        logCapture.removeAppenderAndResetLogLevel();
+
+        assertThat(numberOfTurboFiltersWhileCapturing).isEqualTo(numberOfTurboFilters + 1);
+        assertThat(loggerContext.getTurboFilterList()).hasSize(numberOfTurboFilters);
+        assertThat(log.isDebugEnabled()).isFalse();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.app;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import de.dm.infrastructure.logcapture.LogCapture;
+import de.dm.infrastructure.logcapture.LogCaptureExtension;
+import de.dm.infrastructure.logcapture.LogCapturePackages;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+
+import static de.dm.infrastructure.logcapture.LogCapture.logCapture;
+import static de.dm.infrastructure.logcapture.LogExpectation.debug;
+import static de.dm.infrastructure.logcapture.LogExpectation.info;
+import static de.dm.infrastructure.logcapture.LogExpectation.trace;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Slf4j
+@SuppressWarnings("java:S5778") //this rule does not increase the clarity of these tests
+class CaptureLevelTest {
+
+    @Test
+    void captureLevelSkipsLowerLevels() {
+        LogCapture logCapture = LogCapture.forCurrentPackage().withCaptureLevel(Level.DEBUG);
+        logCapture.addAppenderAndSetLogLevelToTrace();
+        log.trace("hello trace");
+        log.debug("hello debug");
+        logCapture.removeAppenderAndResetLogLevel();
+
+        logCapture.assertLogged(debug("hello debug")).assertNothingElseLogged();
+        logCapture.assertNotLogged(trace());
+    }
+
+    @Test
+    void packageCaptureLevelsOverrideCaptureLevel() {
+        org.slf4j.Logger payloadLogger = LoggerFactory.getLogger("com.example.app.payload.Dumper");
+        LogCapture logCapture = LogCapture.forCurrentPackage()
+                .withCaptureLevels(Map.of("com.example.app.payload", Level.INFO));
+        logCapture.addAppenderAndSetLogLevelToTrace();
+        log.trace("hello trace");
+        payloadLogger.debug("payload dump");
+        payloadLogger.info("payload summary");
+        logCapture.removeAppenderAndResetLogLevel();
+
+        logCapture.assertLoggedInOrder(
+                        trace("hello trace"),
+                        info("payload summary"))
+                .assertNothingElseLogged();
+    }
+
+    @Test
+    void originalLevelsAreRestored() {
+        Logger payloadLogger = (Logger) LoggerFactory.getLogger("com.example.app.restored");
+        payloadLogger.setLevel(Level.WARN);
+        try {
+            LogCapture logCapture = LogCapture.forCurrentPackage()
+                    .withCaptureLevel(Level.DEBUG)
+                    .withCaptureLevels(Map.of("com.example.app.restored", Level.INFO));
+            logCapture.addAppenderAndSetLogLevelToTrace();
+            assertThat(payloadLogger.getLevel()).isEqualTo(Level.INFO);
+            logCapture.removeAppenderAndResetLogLevel();
+
+            assertThat(payloadLogger.getLevel()).isEqualTo(Level.WARN);
+        } finally {
+            payloadLogger.setLevel(null);
+        }
+    }
+
+    @Test
+    void packageCaptureLevelForUncapturedPackageFails() {
+        LogCapture logCapture = LogCapture.forPackages("com.example.app");
+        Map<String, Level> captureLevels = Map.of("com.example.application", Level.INFO);
+
+        var thrown = assertThrows(IllegalArgumentException.class, () -> logCapture.withCaptureLevels(captureLevels));
+
+        assertThat(thrown).hasMessage("Cannot set a capture level for com.example.application because it is not captured. Captured packages are [com.example.app].");
+    }
+
+    @Test
+    void captureLevelMustBeLoggable() {
+        LogCapture logCapture = LogCapture.forCurrentPackage();
+        Map<String, Level> captureLevels = Map.of("com.example.app.payload", Level.ALL);
+
+        var thrownForOff = assertThrows(IllegalArgumentException.class, () -> logCapture.withCaptureLevel(Level.OFF));
+        var thrownForNull = assertThrows(IllegalArgumentException.class, () -> logCapture.withCaptureLevel(null));
+        var thrownForPackage = assertThrows(IllegalArgumentException.class, () -> logCapture.withCaptureLevels(captureLevels));
+
+        assertThat(thrownForOff).hasMessage("Cannot capture with level OFF. Use one of TRACE, DEBUG, INFO, WARN or ERROR.");
+        assertThat(thrownForNull).hasMessage("Cannot capture with level null. Use one of TRACE, DEBUG, INFO, WARN or ERROR.");
+        assertThat(thrownForPackage).hasMessage("Cannot capture with level ALL. Use one of TRACE, DEBUG, INFO, WARN or ERROR.");
+    }
+
+    @Nested
+    @ExtendWith(LogCaptureExtension.class)
+    @LogCapturePackages(value = "com.example.app", level = "INFO")
+    class WithAnnotation {
+        @Test
+        void annotationSetsCaptureLevel() {
+            log.debug("hello debug");
+            log.info("hello info");
+
+            logCapture().assertLogged(info("hello info")).assertNothingElseLogged();
+        }
+    }
+}
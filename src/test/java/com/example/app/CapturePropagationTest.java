@@ -0,0 +1,89 @@
+package com.example.app;
+
+import de.dm.infrastructure.logcapture.LogCapture;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static de.dm.infrastructure.logcapture.LogExpectation.info;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+class CapturePropagationTest {
+
+    private final ExecutorService sharedWorkers = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void shutDownWorkers() {
+        sharedWorkers.shutdown();
+    }
+
+    @Test
+    void attributesTasksOfSharedExecutorToSubmittingCapture() throws Exception {
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        ExecutorService testThreads = Executors.newFixedThreadPool(2);
+        try {
+            CompletableFuture<LogCapture> first = CompletableFuture.supplyAsync(() -> captureWithWorker(barrier, "first"), testThreads);
+            CompletableFuture<LogCapture> second = CompletableFuture.supplyAsync(() -> captureWithWorker(barrier, "second"), testThreads);
+
+            first.get().assertLogged(info("hello from first worker")).assertNothingElseLogged();
+            second.get().assertLogged(info("hello from second worker")).assertNothingElseLogged();
+        } finally {
+            testThreads.shutdown();
+        }
+    }
+
+    @Test
+    void propagatesIntoCallablesAndCompletableFutures() throws Exception {
+        LogCapture logCapture = LogCapture.forCurrentPackage();
+        logCapture.addAppenderAndSetLogLevelToTrace();
+        String result = sharedWorkers.submit(logCapture.propagateCapture(() -> {
+            log.info("hello from callable");
+            return "result";
+        })).get();
+        CompletableFuture.runAsync(() -> log.info("hello from completable future"), logCapture.propagateCapture(sharedWorkers)).get();
+        logCapture.removeAppenderAndResetLogLevel();
+
+        assertThat(result).isEqualTo("result");
+        logCapture.assertLoggedInOrder(
+                info("hello from callable"),
+                info("hello from completable future"));
+    }
+
+    @Test
+    void restoresAttributionOfWorkerThread() throws Exception {
+        LogCapture logCapture = LogCapture.forCurrentPackage();
+        logCapture.addAppenderAndSetLogLevelToTrace();
+        ExecutorService singleWorker = Executors.newSingleThreadExecutor();
+        try {
+            singleWorker.submit(logCapture.propagateCapture(() -> log.info("hello from propagated task"))).get();
+            singleWorker.submit(() -> log.info("hello from unattributed task")).get();
+        } finally {
+            singleWorker.shutdown();
+        }
+        logCapture.removeAppenderAndResetLogLevel();
+
+        logCapture.assertLoggedInOrder(
+                info("hello from propagated task"),
+                info("hello from unattributed task"));
+    }
+
+    private LogCapture captureWithWorker(CyclicBarrier barrier, String name) {
+        LogCapture logCapture = LogCapture.forCurrentPackage();
+        try {
+            logCapture.addAppenderAndSetLogLevelToTrace();
+            barrier.await();
+            logCapture.propagateCapture(sharedWorkers).submit(() -> log.info("hello from {} worker", name)).get();
+            barrier.await();
+            logCapture.removeAppenderAndResetLogLevel();
+            return logCapture;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
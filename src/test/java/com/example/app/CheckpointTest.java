@@ -0,0 +1,108 @@
+package com.example.app;
+
+import de.dm.infrastructure.logcapture.Checkpoint;
+import de.dm.infrastructure.logcapture.LogCapture;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import static de.dm.infrastructure.logcapture.ExpectedTimes.times;
+import static de.dm.infrastructure.logcapture.LogExpectation.info;
+import static de.dm.infrastructure.logcapture.LogExpectation.warn;
+import static de.dm.infrastructure.logcapture.OverflowPolicy.DROP_OLDEST;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Slf4j
+@SuppressWarnings({
+        "java:S5778", //this rule does not increase the clarity of these tests
+        "LoggingSimilarMessage" // not a sensible rule for a logging test
+})
+class CheckpointTest {
+
+    LogCapture logCapture = LogCapture.forCurrentPackage();
+
+    @Test
+    void assertsEachPhaseOnItsOwn() {
+        logCapture.addAppenderAndSetLogLevelToTrace();
+        log.info("phase 1 started");
+        log.info("phase 1 done");
+        Checkpoint secondPhase = logCapture.checkpoint();
+        log.info("phase 2 started");
+        log.warn("phase 2 done");
+        logCapture.removeAppenderAndResetLogLevel();
+
+        logCapture.since(secondPhase)
+                .assertLoggedInOrder(
+                        info("phase 2 started"),
+                        warn("phase 2 done"))
+                .assertNothingElseLogged();
+        logCapture.since(secondPhase).assertNotLogged(info("phase 1"));
+        logCapture.since(secondPhase).assertLogged(times(1), info("phase"));
+        logCapture.assertLogged(times(3), info("phase"));
+
+        var assertionError = assertThrows(AssertionError.class, () -> logCapture.since(secondPhase).assertLogged(info("phase 1 done")));
+
+        assertThat(assertionError).hasMessage("""
+                Expected log message has not occurred.
+                message: INFO "phase 1 done" (regex)
+                """);
+    }
+
+    @Test
+    void nothingElseLoggedOnlyConsidersMessagesAfterCheckpoint() {
+        logCapture.addAppenderAndSetLogLevelToTrace();
+        log.info("hello");
+        Checkpoint checkpoint = logCapture.checkpoint();
+        log.info("hello");
+        log.info("bye");
+        logCapture.removeAppenderAndResetLogLevel();
+
+        logCapture.since(checkpoint)
+                .assertLoggedInAnyOrder(
+                        info("bye"),
+                        info("hello"))
+                .assertNothingElseLogged();
+        var nothingElseLoggedAsserter = logCapture.since(checkpoint).assertLogged(info("hello"));
+
+        assertThrows(AssertionError.class, nothingElseLoggedAsserter::assertNothingElseLogged);
+    }
+
+    @Test
+    void checkpointsKeepTheirPlaceWhenOldestMessagesAreDropped() {
+        logCapture.withCapacity(3, DROP_OLDEST).addAppenderAndSetLogLevelToTrace();
+        log.info("hello 1");
+        log.info("hello 2");
+        Checkpoint checkpoint = logCapture.checkpoint();
+        log.info("hello 3");
+        log.info("hello 4");
+        logCapture.removeAppenderAndResetLogLevel();
+
+        logCapture.since(checkpoint)
+                .assertLoggedInOrder(
+                        info("hello 3"),
+                        info("hello 4"))
+                .assertNothingElseLogged();
+        logCapture.since(checkpoint).assertNotLogged(info("hello 2"));
+    }
+
+    @Test
+    void checkpointsOfOtherCapturesAreRejected() {
+        LogCapture otherLogCapture = LogCapture.forCurrentPackage();
+        otherLogCapture.addAppenderAndSetLogLevelToTrace();
+        Checkpoint otherCheckpoint = otherLogCapture.checkpoint();
+        otherLogCapture.removeAppenderAndResetLogLevel();
+        logCapture.addAppenderAndSetLogLevelToTrace();
+        logCapture.removeAppenderAndResetLogLevel();
+
+        var exception = assertThrows(IllegalArgumentException.class, () -> logCapture.since(otherCheckpoint));
+
+        assertThat(exception).hasMessage("The checkpoint belongs to another capture.");
+    }
+
+    @Test
+    void checkpointRequiresStartedCapture() {
+        var exception = assertThrows(IllegalStateException.class, () -> logCapture.checkpoint());
+
+        assertThat(exception).hasMessage("LogCapture.checkpoint() should only be called after calling addAppenderAndSetLogLevelToTrace()");
+    }
+}
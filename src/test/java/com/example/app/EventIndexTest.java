@@ -0,0 +1,100 @@
+package com.example.app;
+
+import de.dm.infrastructure.logcapture.LogCapture;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.slf4j.MarkerFactory;
+
+import static de.dm.infrastructure.logcapture.ExpectedKeyValue.keyValue;
+import static de.dm.infrastructure.logcapture.ExpectedLoggerName.logger;
+import static de.dm.infrastructure.logcapture.ExpectedMarker.marker;
+import static de.dm.infrastructure.logcapture.ExpectedMdcEntry.mdc;
+import static de.dm.infrastructure.logcapture.ExpectedTimes.times;
+import static de.dm.infrastructure.logcapture.LogExpectation.info;
+import static de.dm.infrastructure.logcapture.LogExpectation.warn;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Slf4j
+@SuppressWarnings({
+        "java:S5778", //this rule does not increase the clarity of these tests
+        "LoggingSimilarMessage" // not a sensible rule for a logging test
+})
+class EventIndexTest {
+
+    private final LogCapture logCapture = LogCapture.forCurrentPackage().withEventIndex();
+
+    @BeforeEach
+    void addAppender() {
+        logCapture.addAppenderAndSetLogLevelToTrace();
+    }
+
+    @AfterEach
+    void removeAppender() {
+        logCapture.removeAppenderAndResetLogLevel();
+    }
+
+    @Test
+    void findsEventsByAttributes() {
+        for (int i = 0; i < 100; i++) {
+            MDC.put("traceId", "trace" + i);
+            log.info("processing");
+        }
+        MDC.clear();
+        LoggerFactory.getLogger("com.example.app.order.OrderService").atWarn()
+                .addMarker(MarkerFactory.getMarker("audit"))
+                .addKeyValue("orderId", 42)
+                .log("order placed");
+
+        logCapture.assertLoggedInOrder(
+                info("processing", mdc("traceId", "trace42")),
+                warn("order placed", logger("OrderService$"), marker("audit"), keyValue("orderId", 42)));
+        logCapture.assertLogged(times(10), info("processing", mdc("traceId", "^trace[0-9]?7$")));
+        logCapture.assertNotLogged(info("processing", mdc("traceId", "trace100")));
+    }
+
+    @Test
+    void findsEventsAfterPreviousAssertions() {
+        log.info(MarkerFactory.getMarker("first"), "hello");
+        logCapture.assertLogged(info("hello", marker("first")));
+
+        log.info(MarkerFactory.getMarker("second"), "hello");
+
+        logCapture.assertLogged(info("hello", marker("second")));
+    }
+
+    @Test
+    void failuresAreExplainedAsWithoutIndex() {
+        MDC.put("key", "value");
+        log.info("hello world");
+        MDC.clear();
+
+        AssertionError assertionError = assertThrows(AssertionError.class, () ->
+                logCapture.assertLogged(info("hello world", mdc("key", "other value"))));
+
+        assertThat(assertionError).hasMessage("""
+                Expected log message has occurred, but never with the expected MDC value:
+                message: INFO "hello world" (regex)
+                  captured message: "hello world"
+                  expected MDC key: key
+                  expected MDC value: ".*other value.*"
+                  captured MDC values:
+                    key: "value"
+                """);
+
+        AssertionError timesAssertionError = assertThrows(AssertionError.class, () ->
+                logCapture.assertLogged(times(2), info("hello world", mdc("key", "value"))));
+
+        assertThat(timesAssertionError).hasMessage("""
+                Expected log message has not occurred exactly 2 time(s)
+                actual occurrences: 1
+                message: INFO "hello world" (regex)
+                  with additional matchers:
+                  - MDCValue with key: "key"
+                """);
+    }
+}
@@ -155,4 +155,32 @@ class ExpectedKeyValueTest {
                 logCapture().assertLogged(info("hello", keyValue("meaning", 42)))
         );
     }
+
+    @Test
+    void succeedsWithShortAndLong() {
+        log.atInfo().setMessage("hello")
+                .addKeyValue("meaning", (short) 42)
+                .log();
+
+        Assertions.assertDoesNotThrow(() ->
+                logCapture().assertLogged(info("hello", keyValue("meaning", 42L)))
+        );
+    }
+
+    @Test
+    void failsWithDoubleAndInt() {
+        log.atInfo().setMessage("hello")
+                .addKeyValue("meaning", 42.0)
+                .log();
+
+        var assertionError = assertThrows(AssertionError.class, () ->
+                logCapture().assertLogged(info("hello", keyValue("meaning", 42)))
+        );
+        assertThat(assertionError).hasMessage("""
+                Expected log message has occurred, but never with the expected key-value pair:
+                message: INFO "hello" (regex)
+                  expected key-value pair (meaning, 42)
+                  actual pairs: [(meaning, 42.0)]
+                """);
+    }
 }
@@ -55,7 +55,7 @@ class InOrderTest {
         // 2. is is reasonable to assume that is it not the user's intention to verify the same message twice
     void assertionWithoutOrderMatchingSameMessageFails() {
         log.info("hello 1");
-        log.info("hello 3");
+        log.info("bye 3");
 
         AssertionError assertionError = assertThrows(AssertionError.class, () ->
                 logCapture().assertLoggedInAnyOrder(
@@ -72,6 +72,40 @@ class InOrderTest {
                 """);
     }
 
+    @Test
+    void assertionWithoutOrderAssignsMessagesMatchingMultipleExpectations() {
+        log.info("hello 1");
+        log.info("hello 3");
+
+        logCapture().assertLoggedInAnyOrder(
+                info("hello"),
+                info("1")
+        );
+    }
+
+    @Test
+    void assertionWithoutOrderMatchingSameMessageFailsForLaterExpectations() {
+        log.info("hello 1");
+        log.info("hello 2");
+        log.info("hello 3");
+
+        AssertionError assertionError = assertThrows(AssertionError.class, () ->
+                logCapture().assertLoggedInAnyOrder(
+                        info("hello"),
+                        info("3"),
+                        info("1"),
+                        info("hello [13]")
+                ));
+
+        assertThat(assertionError).hasMessage("""
+                Imprecise matching: Two log expectations have matched the same message. Use more precise matching or in-order matching.
+                -- First match:
+                message: INFO "1" (regex)
+                -- Second match:
+                message: INFO "hello [13]" (regex)
+                """);
+    }
+
     @Test
     void assertionWithOrderSucceeds() {
         log.info("hello 1");
@@ -0,0 +1,75 @@
+package com.example.app;
+
+import de.dm.infrastructure.logcapture.LogCapture;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.MDC;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static de.dm.infrastructure.logcapture.ExpectedException.exception;
+import static de.dm.infrastructure.logcapture.ExpectedMdcEntry.mdc;
+import static de.dm.infrastructure.logcapture.LogExpectation.info;
+import static de.dm.infrastructure.logcapture.LogExpectation.warn;
+
+@Slf4j
+class LazyMaterializationTest {
+    @RegisterExtension
+    LogCapture logCapture = LogCapture.forCurrentPackage().withLazyMaterialization();
+
+    @Test
+    void formatsMessagesWhenAsserting() {
+        log.info("hello {} and {}", "world", 42);
+
+        logCapture.assertLogged(info("^hello world and 42$"));
+    }
+
+    @Test
+    void keepsMdcOfLoggingThread() {
+        MDC.put("key", "value");
+        try {
+            log.info("hello with MDC");
+        } finally {
+            MDC.remove("key");
+        }
+
+        logCapture.assertLogged(info("hello with MDC", mdc("key", "^value$")));
+    }
+
+    @Test
+    void convertsExceptionsWhenAsserting() {
+        log.warn("oh no {}", "again", new IllegalArgumentException("shame on you!", new NullPointerException("never use null")));
+
+        logCapture.assertLogged(warn("^oh no again$",
+                exception()
+                        .expectedType(IllegalArgumentException.class)
+                        .expectedMessageRegex("shame on you")
+                        .expectedCause(exception()
+                                .expectedType(NullPointerException.class)
+                                .build())
+                        .build()));
+    }
+
+    @Test
+    void formatsThrowableArgumentsLikeLogback() {
+        log.atWarn()
+                .setCause(new IllegalArgumentException("shame on you!"))
+                .setMessage("oh no {}")
+                .addArgument(new IllegalStateException("again"))
+                .log();
+
+        logCapture.assertLogged(warn("^oh no java.lang.IllegalStateException: again$",
+                exception().expectedType(IllegalArgumentException.class).build()));
+    }
+
+    @Test
+    void argumentsChangedAfterLoggingAreVisible() {
+        List<String> items = new ArrayList<>();
+        log.info("items: {}", items);
+        items.add("added later");
+
+        logCapture.assertLogged(info("^items: \\[added later]$"));
+    }
+}
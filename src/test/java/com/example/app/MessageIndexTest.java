@@ -0,0 +1,72 @@
+package com.example.app;
+
+import de.dm.infrastructure.logcapture.LogCapture;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static de.dm.infrastructure.logcapture.ExpectedTimes.times;
+import static de.dm.infrastructure.logcapture.LogExpectation.info;
+import static de.dm.infrastructure.logcapture.LogExpectation.warn;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Slf4j
+@SuppressWarnings({
+        "java:S5778", //this rule does not increase the clarity of these tests
+        "LoggingSimilarMessage" // not a sensible rule for a logging test
+})
+class MessageIndexTest {
+
+    private final LogCapture logCapture = LogCapture.forCurrentPackage().withMessageIndex();
+
+    @BeforeEach
+    void addAppender() {
+        logCapture.addAppenderAndSetLogLevelToTrace();
+    }
+
+    @AfterEach
+    void removeAppender() {
+        logCapture.removeAppenderAndResetLogLevel();
+    }
+
+    @Test
+    void findsMessagesByRequiredText() {
+        for (int i = 0; i < 500; i++) {
+            log.info("processing step {}", i);
+        }
+        log.warn("order 42 shipped");
+        log.info("Order 43 shipped");
+
+        logCapture.assertLoggedInOrder(
+                info("processing step 7$"),
+                warn("order [0-9]+ shipped"),
+                info("(?i)order 43"));
+        logCapture.assertLogged(times(5), info("processing step 49[0-4]"));
+        logCapture.assertNotLogged(info("order [0-9]+ cancelled"));
+    }
+
+    @Test
+    void findsMessagesAfterPreviousAssertions() {
+        log.info("hello world");
+        logCapture.assertLogged(info("hello world"));
+
+        log.info("goodbye world");
+
+        logCapture.assertLogged(info("goodbye world"));
+    }
+
+    @Test
+    void failuresAreExplainedAsWithoutIndex() {
+        log.info("hello world");
+
+        AssertionError assertionError = assertThrows(AssertionError.class, () ->
+                logCapture.assertLogged(info("goodbye world")));
+
+        assertThat(assertionError).hasMessage("""
+                Expected log message has not occurred.
+                message: INFO "goodbye world" (regex)
+                """);
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.app;
+
+import de.dm.infrastructure.logcapture.LogCapture;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static de.dm.infrastructure.logcapture.ExpectedMdcEntry.mdc;
+import static de.dm.infrastructure.logcapture.LogExpectation.error;
+import static de.dm.infrastructure.logcapture.LogExpectation.info;
+import static de.dm.infrastructure.logcapture.LogExpectation.warn;
+import static de.dm.infrastructure.logcapture.OverflowPolicy.DROP_OLDEST;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Slf4j
+@SuppressWarnings({
+        "java:S5778", //this rule does not increase the clarity of these tests
+        "LoggingSimilarMessage" // not a sensible rule for a logging test
+})
+class OnlineExpectationsTest {
+
+    LogCapture logCapture = LogCapture.forCurrentPackage();
+
+    @Test
+    void expectNeverFailsNextAssertionWithFirstOffendingMessage() {
+        logCapture.addAppenderAndSetLogLevelToTrace();
+        logCapture.expectNever(error(), warn("retrying"));
+        log.info("hello");
+        log.warn("retrying order 1");
+        log.warn("retrying order 2");
+
+        var assertionError = assertThrows(AssertionError.class, () -> logCapture.assertLogged(info("hello")));
+        var assertionErrorAtEnd = assertThrows(AssertionError.class, () -> logCapture.assertExpectationsMet());
+        logCapture.removeAppenderAndResetLogLevel();
+
+        assertThat(assertionError).hasMessage("""
+                Found a log message that should never be logged.
+                message: WARN "retrying" (regex)
+                  logged by thread "%s": "retrying order 1\"""".formatted(Thread.currentThread().getName()));
+        assertThat(assertionError.getStackTrace())
+                .anyMatch(element -> element.getMethodName().equals("expectNeverFailsNextAssertionWithFirstOffendingMessage"));
+        assertThat(assertionErrorAtEnd).isSameAs(assertionError);
+    }
+
+    @Test
+    void expectNeverOnlyConsidersMessagesLoggedAfterwards() {
+        logCapture.addAppenderAndSetLogLevelToTrace();
+        log.error("expected failure during setup");
+        logCapture.expectNever(error(), info("hello", mdc("key", "value")));
+        log.info("hello");
+
+        logCapture.assertExpectationsMet();
+        logCapture.assertLogged(error("expected failure"));
+        logCapture.removeAppenderAndResetLogLevel();
+    }
+
+    @Test
+    void expectNeverShowsStackOfLoggingThread() throws InterruptedException {
+        logCapture.addAppenderAndSetLogLevelToTrace();
+        logCapture.expectNever(error());
+        Thread worker = new Thread(logCapture.propagateCapture(() -> logFailureFromWorker()), "order-worker");
+        worker.start();
+        worker.join();
+
+        var assertionError = assertThrows(AssertionError.class, () -> logCapture.assertExpectationsMet());
+        logCapture.removeAppenderAndResetLogLevel();
+
+        assertThat(assertionError.getMessage()).contains("logged by thread \"order-worker\"");
+        assertThat(assertionError.getStackTrace()).anyMatch(element -> element.getMethodName().equals("logFailureFromWorker"));
+    }
+
+    @Test
+    void expectWithinWaitsForAsynchronousMessage() {
+        logCapture.addAppenderAndSetLogLevelToTrace();
+        logCapture.expectWithin(Duration.ofSeconds(10), info("order [0-9]+ shipped"));
+        CompletableFuture.runAsync(logCapture.propagateCapture(() -> {
+            sleep(50);
+            log.info("order 42 shipped");
+        }));
+
+        logCapture.assertExpectationsMet();
+        logCapture.removeAppenderAndResetLogLevel();
+    }
+
+    @Test
+    void expectWithinFailsIfNotLoggedInTime() {
+        logCapture.addAppenderAndSetLogLevelToTrace();
+        logCapture.expectWithin(Duration.ofMillis(20), info("order [0-9]+ shipped"));
+        log.info("order 42 packed");
+
+        var assertionError = assertThrows(AssertionError.class, () -> logCapture.assertExpectationsMet());
+        log.info("order 42 shipped");
+        logCapture.removeAppenderAndResetLogLevel();
+
+        assertThat(assertionError).hasMessage("""
+                Expected log message has not been logged within PT0.02S.
+                message: INFO "order [0-9]+ shipped" (regex)
+                """);
+    }
+
+    @Test
+    void expectWithinFailsIfLoggedTooLate() {
+        logCapture.addAppenderAndSetLogLevelToTrace();
+        logCapture.expectWithin(Duration.ZERO, info("order [0-9]+ shipped"));
+        sleep(1);
+        log.info("order 42 shipped");
+
+        var assertionError = assertThrows(AssertionError.class, () -> logCapture.assertExpectationsMet());
+        logCapture.removeAppenderAndResetLogLevel();
+
+        assertThat(assertionError.getMessage()).startsWith("Expected log message has been logged later than PT0S.");
+    }
+
+    @Test
+    void withoutBufferingOnlyChecksOnlineExpectations() {
+        LogCapture unbufferedCapture = LogCapture.forCurrentPackage().withoutBuffering();
+        unbufferedCapture.addAppenderAndSetLogLevelToTrace();
+        unbufferedCapture.expectNever(error());
+        unbufferedCapture.expectWithin(Duration.ofSeconds(10), info("order 999 shipped"));
+        for (int i = 0; i < 1000; i++) {
+            log.info("order {} shipped", i);
+        }
+
+        unbufferedCapture.assertExpectationsMet();
+        var illegalStateException = assertThrows(IllegalStateException.class, () -> unbufferedCapture.assertLogged(info("order 1 shipped")));
+        unbufferedCapture.removeAppenderAndResetLogLevel();
+
+        assertThat(illegalStateException).hasMessage("Log messages are not kept with LogCapture.withoutBuffering(), " +
+                "so they can only be checked with expectNever() and expectWithin().");
+    }
+
+    @Test
+    void onlineExpectationsSeeMessagesDroppedFromBoundedCapture() {
+        LogCapture boundedCapture = LogCapture.forCurrentPackage().withCapacity(1, DROP_OLDEST);
+        boundedCapture.addAppenderAndSetLogLevelToTrace();
+        boundedCapture.expectNever(error());
+        log.error("dropped failure");
+        log.info("hello");
+
+        var assertionError = assertThrows(AssertionError.class, () -> boundedCapture.assertLogged(info("hello")));
+        boundedCapture.removeAppenderAndResetLogLevel();
+
+        assertThat(assertionError.getMessage()).contains("\"dropped failure\"");
+    }
+
+    @Test
+    void expectationsNeedActiveCapture() {
+        var illegalStateException = assertThrows(IllegalStateException.class, () -> logCapture.expectNever(error()));
+        var illegalArgumentException = assertThrows(IllegalArgumentException.class, () -> logCapture.expectNever());
+
+        assertThat(illegalStateException).hasMessage("LogCapture.expectNever() should only be called after calling addAppenderAndSetLogLevelToTrace()");
+        assertThat(illegalArgumentException).hasMessage("at least one LogExpectation is required for expectNever(). Found none");
+    }
+
+    private static void logFailureFromWorker() {
+        log.error("worker failed");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.app;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import de.dm.infrastructure.logcapture.LogCapture;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static de.dm.infrastructure.logcapture.LogExpectation.debug;
+import static de.dm.infrastructure.logcapture.LogExpectation.info;
+import static de.dm.infrastructure.logcapture.LogExpectation.trace;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+class ParallelCaptureTest {
+
+    @Test
+    void capturesOnlyEventsOfOwnThread() throws Exception {
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            CompletableFuture<LogCapture> first = CompletableFuture.supplyAsync(() -> captureInParallel(barrier, "hello from first test"), executor);
+            CompletableFuture<LogCapture> second = CompletableFuture.supplyAsync(() -> captureInParallel(barrier, "hello from second test"), executor);
+
+            first.get().assertLogged(info("hello from first test")).assertNothingElseLogged();
+            second.get().assertLogged(info("hello from second test")).assertNothingElseLogged();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void keepsCaptureLevelWhileAnotherCaptureOfThePackageIsMoreVerbose() throws Exception {
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            LogCapture infoCapture = LogCapture.forCurrentPackage().withCaptureLevel(Level.INFO);
+            LogCapture traceCapture = LogCapture.forCurrentPackage();
+            CompletableFuture<Void> first = CompletableFuture.runAsync(() -> captureInParallel(infoCapture, barrier, () -> {
+                log.debug("debug from info test");
+                log.info("info from info test");
+            }), executor);
+            CompletableFuture<Void> second = CompletableFuture.runAsync(() -> captureInParallel(traceCapture, barrier, () -> {
+                log.trace("trace from trace test");
+                log.debug("debug from trace test");
+            }), executor);
+            first.get();
+            second.get();
+
+            infoCapture.assertLogged(info("info from info test")).assertNothingElseLogged();
+            infoCapture.assertNotLogged(debug());
+            traceCapture.assertLoggedInOrder(trace("trace from trace test"), debug("debug from trace test")).assertNothingElseLogged();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void capturesEventsOfThreadsWithoutCapture() throws Exception {
+        LogCapture logCapture = LogCapture.forCurrentPackage();
+        logCapture.addAppenderAndSetLogLevelToTrace();
+        CompletableFuture.runAsync(() -> log.info("hello from worker")).get();
+        logCapture.removeAppenderAndResetLogLevel();
+
+        logCapture.assertLogged(info("hello from worker"));
+    }
+
+    @Test
+    void restoresLevelWhenLastCaptureEnds() {
+        Logger packageLogger = (Logger) LoggerFactory.getLogger("com.example.app.shared");
+        packageLogger.setLevel(Level.WARN);
+        try {
+            LogCapture first = LogCapture.forPackages("com.example.app.shared").withCaptureLevel(Level.INFO);
+            LogCapture second = LogCapture.forPackages("com.example.app.shared").withCaptureLevel(Level.DEBUG);
+
+            first.addAppenderAndSetLogLevelToTrace();
+            second.addAppenderAndSetLogLevelToTrace();
+            Level levelWhileBothCapture = packageLogger.getLevel();
+            second.removeAppenderAndResetLogLevel();
+            Level levelWhileFirstCaptures = packageLogger.getLevel();
+            first.removeAppenderAndResetLogLevel();
+
+            assertThat(levelWhileBothCapture).isEqualTo(Level.DEBUG);
+            assertThat(levelWhileFirstCaptures).isEqualTo(Level.INFO);
+            assertThat(packageLogger.getLevel()).isEqualTo(Level.WARN);
+        } finally {
+            packageLogger.setLevel(null);
+        }
+    }
+
+    private static LogCapture captureInParallel(CyclicBarrier barrier, String message) {
+        LogCapture logCapture = LogCapture.forCurrentPackage();
+        captureInParallel(logCapture, barrier, () -> log.info(message));
+        return logCapture;
+    }
+
+    // both captures are active while either of them logs
+    private static void captureInParallel(LogCapture logCapture, CyclicBarrier barrier, Runnable logging) {
+        try {
+            logCapture.addAppenderAndSetLogLevelToTrace();
+            barrier.await();
+            logging.run();
+            barrier.await();
+            logCapture.removeAppenderAndResetLogLevel();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
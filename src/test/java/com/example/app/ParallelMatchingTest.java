@@ -0,0 +1,75 @@
+package com.example.app;
+
+import de.dm.infrastructure.logcapture.LogCapture;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static de.dm.infrastructure.logcapture.ExpectedMdcEntry.mdc;
+import static de.dm.infrastructure.logcapture.ExpectedTimes.atLeast;
+import static de.dm.infrastructure.logcapture.ExpectedTimes.times;
+import static de.dm.infrastructure.logcapture.LogExpectation.info;
+import static de.dm.infrastructure.logcapture.LogExpectation.warn;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Slf4j
+@SuppressWarnings({
+        "java:S5778", //this rule does not increase the clarity of these tests
+        "LoggingSimilarMessage" // not a sensible rule for a logging test
+})
+class ParallelMatchingTest {
+
+    private final LogCapture logCapture = LogCapture.forCurrentPackage().withParallelMatchingThreshold(1);
+
+    @BeforeEach
+    void addAppender() {
+        logCapture.addAppenderAndSetLogLevelToTrace();
+    }
+
+    @AfterEach
+    void removeAppender() {
+        logCapture.removeAppenderAndResetLogLevel();
+    }
+
+    @Test
+    void matchesLikeSequentially() {
+        for (int i = 0; i < 100; i++) {
+            log.info("step {}", i);
+        }
+        log.warn("step 42 failed");
+
+        logCapture.assertLogged(info("step 4"));
+        logCapture.assertLogged(times(11), info("step 4"));
+        logCapture.assertLogged(atLeast(11), info("step 4"));
+        logCapture.assertLoggedInOrder(
+                info("step 42"),
+                info("step 43"),
+                warn("step 42 failed"));
+        logCapture.assertNotLogged(warn("step 43"));
+    }
+
+    @Test
+    void failuresAreExplainedAsSequentially() {
+        log.info("hello world");
+
+        AssertionError assertionError = assertThrows(AssertionError.class, () ->
+                logCapture.assertLogged(info("hello world", mdc("key", "value"))));
+
+        assertThat(assertionError).hasMessageStartingWith("""
+                Expected log message has occurred, but never with the expected MDC value:
+                message: INFO "hello world" (regex)
+                """);
+    }
+
+    @Test
+    void thresholdMustBePositive() {
+        LogCapture logCaptureForThreshold = LogCapture.forCurrentPackage();
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                logCaptureForThreshold.withParallelMatchingThreshold(0));
+
+        assertThat(exception).hasMessage("parallel matching threshold must be at least 1, but was 0");
+    }
+}
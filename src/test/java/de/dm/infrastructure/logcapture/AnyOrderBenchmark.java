@@ -0,0 +1,63 @@
+package de.dm.infrastructure.logcapture;
+
+import ch.qos.logback.classic.Level;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static de.dm.infrastructure.logcapture.LogExpectation.info;
+
+/**
+ * asserts hundreds of expectations in any order against a capture of 100k messages, most of them at DEBUG level
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class AnyOrderBenchmark {
+    private static final int NUMBER_OF_EVENTS = 100_000;
+
+    @Param({"200"})
+    int numberOfExpectations;
+
+    private LogAsserter logAsserter;
+    private LogExpectation[] logExpectations;
+
+    @Setup
+    public void setUp() {
+        List<LoggedEvent> loggedEvents = new CapturedEvents();
+        CapturingAppender capturingAppender = new CapturingAppender(null, Set.of("com.example"), loggedEvents, false, false, false);
+        int distance = NUMBER_OF_EVENTS / numberOfExpectations;
+        for (int i = 0; i < NUMBER_OF_EVENTS; i++) {
+            boolean order = i % distance == distance - 1;
+            loggedEvents.add(LoggedEvent.builder()
+                    .level(order ? Level.INFO : Level.DEBUG)
+                    .formattedMessage(order ? "order " + i / distance + " processed" : "processing item " + i)
+                    .build());
+        }
+        logAsserter = new LogAsserter(capturingAppender, List.of());
+        logExpectations = new LogExpectation[numberOfExpectations];
+        for (int i = 0; i < numberOfExpectations; i++) {
+            logExpectations[i] = info("order " + (numberOfExpectations - 1 - i) + " processed");
+        }
+    }
+
+    @Benchmark
+    public Object assertInAnyOrder() {
+        return logAsserter.assertLoggedInAnyOrder(logExpectations);
+    }
+}
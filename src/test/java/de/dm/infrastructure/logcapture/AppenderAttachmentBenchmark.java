@@ -0,0 +1,83 @@
+package de.dm.infrastructure.logcapture;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.slf4j.Logger.ROOT_LOGGER_NAME;
+
+/**
+ * compares attaching the capturing appender to the root logger with attaching it to the captured package loggers
+ * while frameworks log a lot at INFO level, as a Spring application with Hibernate and Netty does.
+ * Each operation logs 20 framework messages and one captured message.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class AppenderAttachmentBenchmark {
+    private static final String[] FRAMEWORK_LOGGERS = {
+            "org.springframework.web.servlet.DispatcherServlet",
+            "org.springframework.beans.factory.support.DefaultListableBeanFactory",
+            "org.springframework.transaction.support.TransactionTemplate",
+            "org.hibernate.SQL",
+            "org.hibernate.engine.transaction.internal.TransactionImpl",
+            "io.netty.channel.nio.NioEventLoop",
+            "io.netty.buffer.PooledByteBufAllocator",
+            "com.zaxxer.hikari.pool.HikariPool",
+            "org.apache.catalina.core.StandardWrapperValve",
+            "reactor.netty.http.server.HttpServerOperations",
+    };
+
+    @Param({"root", "packageLoggers"})
+    String attachment;
+
+    private final org.slf4j.Logger[] frameworkLoggers = new org.slf4j.Logger[FRAMEWORK_LOGGERS.length];
+    private final org.slf4j.Logger capturedLogger = LoggerFactory.getLogger("com.example.shop.order.OrderService");
+    private LogCapture logCapture;
+
+    @Setup
+    public void setUp() {
+        Logger rootLogger = (Logger) LoggerFactory.getLogger(ROOT_LOGGER_NAME);
+        rootLogger.detachAndStopAllAppenders();
+        rootLogger.setLevel(Level.INFO);
+        for (int i = 0; i < FRAMEWORK_LOGGERS.length; i++) {
+            frameworkLoggers[i] = LoggerFactory.getLogger(FRAMEWORK_LOGGERS[i]);
+        }
+        logCapture = LogCapture.forPackages("com.example.shop").withCapacity(10_000, OverflowPolicy.DROP_OLDEST);
+        if ("packageLoggers".equals(attachment)) {
+            logCapture.withAppenderOnPackageLoggers();
+        }
+        logCapture.addAppenderAndSetLogLevelToTrace();
+    }
+
+    @TearDown
+    public void tearDown() {
+        logCapture.removeAppenderAndResetLogLevel();
+    }
+
+    @Benchmark
+    public void logWithFrameworkNoise() {
+        for (org.slf4j.Logger frameworkLogger : frameworkLoggers) {
+            frameworkLogger.info("framework message {}", 1);
+            frameworkLogger.info("another framework message");
+        }
+        capturedLogger.info("order {} processed", 42);
+    }
+}
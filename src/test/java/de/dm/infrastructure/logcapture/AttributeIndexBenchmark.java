@@ -0,0 +1,65 @@
+package de.dm.infrastructure.logcapture;
+
+import ch.qos.logback.classic.Level;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static de.dm.infrastructure.logcapture.ExpectedMdcEntry.mdc;
+import static de.dm.infrastructure.logcapture.LogExpectation.info;
+
+/**
+ * asserts the messages of one request by its MDC trace id in a capture of 100k INFO messages of 1000 requests, with and
+ * without the attribute index
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class AttributeIndexBenchmark {
+    private static final int NUMBER_OF_EVENTS = 100_000;
+    private static final int NUMBER_OF_REQUESTS = 1000;
+
+    @Param({"scan", "attributeIndex"})
+    String lookup;
+
+    private LogAsserter logAsserter;
+
+    @Setup
+    public void setUp() {
+        List<LoggedEvent> loggedEvents = new CapturedEvents();
+        CapturingAppender capturingAppender = new CapturingAppender(null, Set.of("com.example"), loggedEvents, false,
+                "attributeIndex".equals(lookup), false);
+        for (int i = 0; i < NUMBER_OF_EVENTS; i++) {
+            loggedEvents.add(LoggedEvent.builder()
+                    .level(Level.INFO)
+                    .formattedMessage("processing step " + i / NUMBER_OF_REQUESTS)
+                    .mdcData(Map.of("traceId", "trace-" + i % NUMBER_OF_REQUESTS))
+                    .loggerName("com.example.RequestHandler")
+                    .build());
+        }
+        logAsserter = new LogAsserter(capturingAppender, List.of());
+    }
+
+    @Benchmark
+    public Object assertRequest() {
+        return logAsserter.assertLoggedInOrder(
+                info("processing step 0", mdc("traceId", "trace-742")),
+                info("processing step 99", mdc("traceId", "trace-742")));
+    }
+}
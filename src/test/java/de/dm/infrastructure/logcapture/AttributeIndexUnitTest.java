@@ -0,0 +1,117 @@
+package de.dm.infrastructure.logcapture;
+
+import ch.qos.logback.classic.Level;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+import org.slf4j.event.KeyValuePair;
+
+import java.util.List;
+import java.util.Map;
+
+import static de.dm.infrastructure.logcapture.ExpectedException.exception;
+import static de.dm.infrastructure.logcapture.ExpectedKeyValue.keyValue;
+import static de.dm.infrastructure.logcapture.ExpectedLoggerName.logger;
+import static de.dm.infrastructure.logcapture.ExpectedMarker.marker;
+import static de.dm.infrastructure.logcapture.ExpectedMdcEntry.mdc;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AttributeIndexUnitTest {
+
+    CapturedEvents loggedEvents = new CapturedEvents();
+    AttributeIndex sut = new AttributeIndex(loggedEvents);
+
+    @Test
+    void findsPositionsByLoggerNameRegex() {
+        add(event().loggerName("com.example.order.OrderService"));
+        add(event().loggerName("com.example.payment.PaymentService"));
+        add(event().loggerName("com.example.order.OrderRepository"));
+
+        assertThat(positionsOf(sut.candidatePositions(logger("order")))).containsExactly(0, 2);
+        assertThat(positionsOf(sut.candidatePositions(logger("Service$")))).containsExactly(0, 1);
+        assertThat(positionsOf(sut.candidatePositions(logger("shipping")))).isEmpty();
+    }
+
+    @Test
+    void findsPositionsByMdcKeyAndValue() {
+        add(event().mdcData(Map.of("traceId", "abc", "user", "alice")));
+        add(event().mdcData(Map.of()));
+        add(event().mdcData(Map.of("traceId", "xyz")));
+
+        assertThat(positionsOf(sut.candidatePositions(mdc("traceId", "abc")))).containsExactly(0);
+        assertThat(positionsOf(sut.candidatePositions(mdc("traceId", "[a-z]{3}")))).containsExactly(0, 2);
+        assertThat(positionsOf(sut.candidatePositions(mdc("traceId", value -> true)))).containsExactly(0, 2);
+        assertThat(positionsOf(sut.candidatePositions(mdc("user", "bob")))).isEmpty();
+    }
+
+    @Test
+    void findsPositionsByReferencedMarkers() {
+        Marker parent = MarkerFactory.getDetachedMarker("parent");
+        parent.add(MarkerFactory.getDetachedMarker("child"));
+        add(event().markers(List.of(parent)));
+        add(event().markers(List.of(MarkerFactory.getDetachedMarker("child"))));
+        add(event());
+
+        assertThat(positionsOf(sut.candidatePositions(marker("parent")))).containsExactly(0);
+        assertThat(positionsOf(sut.candidatePositions(marker("child")))).containsExactly(0, 1);
+    }
+
+    @Test
+    void findsPositionsByKeyValueKey() {
+        add(event().keyValuePairs(List.of(new KeyValuePair("orderId", 1), new KeyValuePair("orderId", 2))));
+        add(event().keyValuePairs(List.of(new KeyValuePair("amount", 3))));
+
+        assertThat(positionsOf(sut.candidatePositions(keyValue("orderId", 2)))).containsExactly(0);
+        assertThat(positionsOf(sut.candidatePositions(keyValue("customerId", 2)))).isEmpty();
+    }
+
+    @Test
+    void indexesEventsCapturedAfterPreviousQuery() {
+        add(event().loggerName("com.example.Service"));
+        EventPositions positionsBefore = sut.candidatePositions(logger("Service"));
+        add(event().loggerName("com.example.Service"));
+
+        assertThat(positionsOf(positionsBefore)).containsExactly(0);
+        assertThat(positionsOf(sut.candidatePositions(logger("Service")))).containsExactly(0, 1);
+    }
+
+    @Test
+    void doesNotKnowOtherMatchers() {
+        add(event());
+
+        assertThat(sut.candidatePositions(exception().build())).isNull();
+    }
+
+    @Test
+    void intersectsCandidatePositions() {
+        EventPositions positions = EventPositions.of(new int[]{1, 3, 5, 7}, 4);
+
+        assertThat(positionsOf(positions.intersect(EventPositions.of(new int[]{0, 3, 4, 7}, 4)))).containsExactly(3, 7);
+        assertThat(positionsOf(positions.intersect(EventPositions.range(2, 6)))).containsExactly(3, 5);
+        assertThat(positionsOf(EventPositions.range(2, 6).intersect(EventPositions.range(4, 9)))).containsExactly(4, 5);
+
+        int[] manyPositions = new int[100];
+        for (int i = 0; i < manyPositions.length; i++) {
+            manyPositions[i] = 2 * i;
+        }
+        EventPositions fewPositions = EventPositions.of(new int[]{3, 4, 50, 51, 198, 199}, 6);
+        assertThat(positionsOf(fewPositions.intersect(EventPositions.of(manyPositions, 100)))).containsExactly(4, 50, 198);
+        assertThat(positionsOf(EventPositions.of(manyPositions, 100).intersect(fewPositions))).containsExactly(4, 50, 198);
+    }
+
+    private static LoggedEvent.LoggedEventBuilder event() {
+        return LoggedEvent.builder().level(Level.INFO).formattedMessage("message").mdcData(Map.of());
+    }
+
+    private void add(LoggedEvent.LoggedEventBuilder event) {
+        loggedEvents.add(event.build());
+    }
+
+    private static int[] positionsOf(EventPositions eventPositions) {
+        int[] positions = new int[eventPositions.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = eventPositions.get(i);
+        }
+        return positions;
+    }
+}
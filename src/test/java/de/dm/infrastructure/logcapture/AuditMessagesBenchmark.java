@@ -0,0 +1,65 @@
+package de.dm.infrastructure.logcapture;
+
+import ch.qos.logback.classic.Level;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static de.dm.infrastructure.logcapture.LogExpectation.info;
+
+/**
+ * asserts 200 audit messages in any order in a scenario that logs 10k INFO messages, like a contract test does. Half of the
+ * expected messages are plain text, the other half are regexes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class AuditMessagesBenchmark {
+    private static final int NUMBER_OF_EVENTS = 10_000;
+    private static final int NUMBER_OF_AUDIT_MESSAGES = 200;
+
+    private LogAsserter logAsserter;
+    private LogExpectation[] logExpectations;
+
+    @Setup
+    public void setUp() {
+        List<LoggedEvent> loggedEvents = new CapturedEvents();
+        CapturingAppender capturingAppender = new CapturingAppender(null, Set.of("com.example"), loggedEvents, false, false, false);
+        int distance = NUMBER_OF_EVENTS / NUMBER_OF_AUDIT_MESSAGES;
+        for (int i = 0; i < NUMBER_OF_EVENTS; i++) {
+            String message = i % distance == 0
+                    ? "audit: order " + i / distance + " changed state from PROCESSING to SHIPPED by user-" + i
+                    : "processing line item " + i + " of order " + i / distance + " with payload {\"sku\":\"4711\",\"quantity\":3}";
+            loggedEvents.add(LoggedEvent.builder()
+                    .level(Level.INFO)
+                    .formattedMessage(message)
+                    .build());
+        }
+        logAsserter = new LogAsserter(capturingAppender, List.of());
+        logExpectations = new LogExpectation[NUMBER_OF_AUDIT_MESSAGES];
+        for (int i = 0; i < NUMBER_OF_AUDIT_MESSAGES; i++) {
+            logExpectations[i] = i % 2 == 0
+                    ? info("audit: order " + i + " changed state from PROCESSING to SHIPPED")
+                    : info("audit: order " + i + " changed state from [A-Z]+ to SHIPPED by user-[0-9]+");
+        }
+    }
+
+    @Benchmark
+    public Object assertAuditMessages() {
+        return logAsserter.assertLoggedInAnyOrder(logExpectations);
+    }
+}
@@ -0,0 +1,50 @@
+package de.dm.infrastructure.logcapture;
+
+import org.junit.jupiter.api.Test;
+
+import static de.dm.infrastructure.logcapture.BipartiteMatching.UNMATCHED;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BipartiteMatchingUnitTest {
+
+    @Test
+    void reassignsEventsToMatchAllExpectations() {
+        int[][] candidates = {
+                {0, 1},
+                {0},
+        };
+
+        assertThat(BipartiteMatching.assign(candidates, 2)).containsExactly(1, 0);
+    }
+
+    @Test
+    void findsLongAugmentingPaths() {
+        int numberOfExpectations = 500;
+        int[][] candidates = new int[numberOfExpectations][];
+        for (int expectation = 0; expectation < numberOfExpectations - 1; expectation++) {
+            candidates[expectation] = new int[]{expectation, expectation + 1};
+        }
+        candidates[numberOfExpectations - 1] = new int[]{0};
+
+        int[] assignment = BipartiteMatching.assign(candidates, numberOfExpectations);
+
+        assertThat(assignment[numberOfExpectations - 1]).isZero();
+        for (int expectation = 0; expectation < numberOfExpectations - 1; expectation++) {
+            assertThat(assignment[expectation]).isEqualTo(expectation + 1);
+        }
+    }
+
+    @Test
+    void leavesExpectationsUnmatchedIfThereAreNotEnoughEvents() {
+        int[][] candidates = {
+                {2},
+                {0, 2},
+                {2},
+        };
+
+        int[] assignment = BipartiteMatching.assign(candidates, 3);
+
+        assertThat(assignment[1]).isZero();
+        assertThat(assignment).containsOnlyOnce(UNMATCHED).containsOnlyOnce(2);
+    }
+}
@@ -0,0 +1,91 @@
+package de.dm.infrastructure.logcapture;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CaptureDispatcherUnitTest {
+
+    LoggerContext loggerContext = new LoggerContext();
+
+    @BeforeEach
+    void setUp() {
+        loggerContext.setMDCAdapter(new LogbackMDCAdapter());
+    }
+
+    @Test
+    void capturesAgainAfterLoggerContextHasBeenReset() {
+        CapturingAppender firstCapture = new CapturingAppender(loggerContext, Set.of("com.example"));
+        CapturingAppender secondCapture = new CapturingAppender(loggerContext, Set.of("com.example"));
+        CaptureDispatcher.addCapture(loggerContext, firstCapture);
+
+        loggerContext.reset();
+        CaptureDispatcher.addCapture(loggerContext, secondCapture);
+        loggerContext.getLogger("com.example").info("hello");
+        CaptureDispatcher.removeCapture(loggerContext, secondCapture);
+        CaptureDispatcher.removeCapture(loggerContext, firstCapture);
+
+        assertThat(secondCapture.getLoggedEvents()).extracting(LoggedEvent::getFormattedMessage).containsExactly("hello");
+    }
+
+    @Test
+    void detachesFromRootLoggerWhenLastCaptureIsRemoved() {
+        CapturingAppender firstCapture = new CapturingAppender(loggerContext, Set.of("com.example"));
+        CapturingAppender secondCapture = new CapturingAppender(loggerContext, Set.of("com.example"));
+        CaptureDispatcher.addCapture(loggerContext, firstCapture);
+        CaptureDispatcher.addCapture(loggerContext, secondCapture);
+
+        CaptureDispatcher.removeCapture(loggerContext, firstCapture);
+        boolean attachedWhileCapturing = loggerContext.getLogger("ROOT").iteratorForAppenders().hasNext();
+        CaptureDispatcher.removeCapture(loggerContext, secondCapture);
+
+        assertThat(attachedWhileCapturing).isTrue();
+        assertThat(loggerContext.getLogger("ROOT").iteratorForAppenders()).isExhausted();
+    }
+
+    @Test
+    void letsLoggerContextBeGarbageCollectedWhenLastCaptureIsRemoved() throws InterruptedException {
+        WeakReference<LoggerContext> capturedContext = captureOnce();
+
+        for (int i = 0; i < 50 && capturedContext.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertThat(capturedContext.get()).isNull();
+    }
+
+    private static WeakReference<LoggerContext> captureOnce() {
+        LoggerContext otherContext = new LoggerContext();
+        otherContext.setMDCAdapter(new LogbackMDCAdapter());
+        CapturingAppender capture = new CapturingAppender(otherContext, Set.of("com.example"));
+        CaptureDispatcher.addCapture(otherContext, capture);
+        otherContext.getLogger("com.example").info("hello");
+        CaptureDispatcher.removeCapture(otherContext, capture);
+        return new WeakReference<>(otherContext);
+    }
+
+    @Test
+    void doesNotDispatchEventsLoggedWhileFormattingACapturedEvent() {
+        CapturingAppender capture = new CapturingAppender(loggerContext, Set.of("com.example"));
+        Object loggingArgument = new Object() {
+            @Override
+            public String toString() {
+                loggerContext.getLogger("com.example").info("logged by toString()");
+                return "argument";
+            }
+        };
+        CaptureDispatcher.addCapture(loggerContext, capture);
+
+        loggerContext.getLogger("com.example").info("hello {}", loggingArgument);
+        CaptureDispatcher.removeCapture(loggerContext, capture);
+
+        assertThat(capture.getLoggedEvents()).extracting(LoggedEvent::getFormattedMessage).containsExactly("hello argument");
+    }
+}
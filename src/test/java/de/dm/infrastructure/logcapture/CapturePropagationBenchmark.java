@@ -0,0 +1,54 @@
+package de.dm.infrastructure.logcapture;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * measures what propagating a capture adds to handing over a task, which is wrapping it and switching the
+ * attribution of the running thread
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CapturePropagationBenchmark {
+
+    @Param({"plain", "propagated"})
+    String handoff;
+
+    private LogCapture logCapture;
+    private Blackhole blackhole;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        this.blackhole = blackhole;
+        logCapture = LogCapture.forPackages("com.example.shop");
+        logCapture.addAppenderAndSetLogLevelToTrace();
+    }
+
+    @TearDown
+    public void tearDown() {
+        logCapture.removeAppenderAndResetLogLevel();
+    }
+
+    @Benchmark
+    public void handOverTask() {
+        Runnable task = () -> blackhole.consume(42);
+        ("propagated".equals(handoff) ? logCapture.propagateCapture(task) : task).run();
+    }
+}
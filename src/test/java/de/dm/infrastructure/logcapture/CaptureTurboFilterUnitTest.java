@@ -0,0 +1,51 @@
+package de.dm.infrastructure.logcapture;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static ch.qos.logback.core.spi.FilterReply.ACCEPT;
+import static ch.qos.logback.core.spi.FilterReply.NEUTRAL;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CaptureTurboFilterUnitTest {
+
+    LoggerContext loggerContext = new LoggerContext();
+    CaptureTurboFilter sut = new CaptureTurboFilter(Map.of(
+            "de.dm", Level.DEBUG,
+            "de.dm.payload", Level.WARN));
+
+    @Test
+    void acceptsCapturedLevels() {
+        assertThat(decide("de.dm.Foo", Level.DEBUG)).isEqualTo(ACCEPT);
+        assertThat(decide("de.dm.Foo", Level.ERROR)).isEqualTo(ACCEPT);
+        assertThat(decide("de.dm.payload.Dumper", Level.WARN)).isEqualTo(ACCEPT);
+    }
+
+    @Test
+    void leavesLowerLevelsToLogback() {
+        assertThat(decide("de.dm.Foo", Level.TRACE)).isEqualTo(NEUTRAL);
+        assertThat(decide("de.dm.payload.Dumper", Level.INFO)).isEqualTo(NEUTRAL);
+    }
+
+    @Test
+    void leavesUncapturedLoggersToLogback() {
+        assertThat(decide("de.dmx.Foo", Level.ERROR)).isEqualTo(NEUTRAL);
+        assertThat(decide("org.other.Foo", Level.ERROR)).isEqualTo(NEUTRAL);
+    }
+
+    @Test
+    void usesNearestPackageForInnerClasses() {
+        assertThat(decide("de.dm.payload$Inner", Level.INFO)).isEqualTo(NEUTRAL);
+        assertThat(decide("de.dm.Outer$Inner", Level.INFO)).isEqualTo(ACCEPT);
+    }
+
+    private FilterReply decide(String loggerName, Level level) {
+        Logger logger = loggerContext.getLogger(loggerName);
+        return sut.decide(null, logger, level, "message", null, null);
+    }
+}
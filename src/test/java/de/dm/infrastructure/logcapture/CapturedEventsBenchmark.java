@@ -0,0 +1,69 @@
+package de.dm.infrastructure.logcapture;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * compares appending captured events to {@link CapturedEvents} with the former synchronized ArrayList.
+ * <p>
+ * Use {@link #main(String[])} to run it with 1 to 64 threads, or pass {@code -t <threads>} to JMH directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class CapturedEventsBenchmark {
+
+    @Param({"synchronized", "lockFree"})
+    String buffer;
+
+    private final LoggedEvent loggedEvent = LoggedEvent.builder().formattedMessage("hello world").build();
+    private List<LoggedEvent> loggedEvents;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        loggedEvents = "lockFree".equals(buffer) ? new CapturedEvents() : new SynchronizedList();
+    }
+
+    @Benchmark
+    public boolean append() {
+        return loggedEvents.add(loggedEvent);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads = 1; threads <= 64; threads *= 2) {
+            new Runner(new OptionsBuilder()
+                    .include(CapturedEventsBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build())
+                    .run();
+        }
+    }
+
+    // what CapturingAppender did before: an ArrayList guarded by the appender's monitor
+    private static final class SynchronizedList extends ArrayList<LoggedEvent> {
+        @Override
+        public synchronized boolean add(LoggedEvent loggedEvent) {
+            return super.add(loggedEvent);
+        }
+    }
+}
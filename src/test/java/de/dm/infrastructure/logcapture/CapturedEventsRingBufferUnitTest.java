@@ -0,0 +1,115 @@
+package de.dm.infrastructure.logcapture;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static de.dm.infrastructure.logcapture.OverflowPolicy.DROP_NEWEST;
+import static de.dm.infrastructure.logcapture.OverflowPolicy.DROP_OLDEST;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Timeout.ThreadMode.SEPARATE_THREAD;
+
+class CapturedEventsRingBufferUnitTest {
+
+    @Test
+    void dropOldestKeepsTheLatestEventsInOrder() {
+        CapturedEventsRingBuffer sut = new CapturedEventsRingBuffer(3, DROP_OLDEST);
+
+        for (int i = 0; i < 7; i++) {
+            sut.add(event("message " + i));
+        }
+
+        assertThat(sut).extracting(LoggedEvent::getFormattedMessage).containsExactly("message 4", "message 5", "message 6");
+        assertThat(sut.getDroppedEvents()).isEqualTo(4);
+    }
+
+    @Test
+    void dropNewestKeepsTheFirstEvents() {
+        CapturedEventsRingBuffer sut = new CapturedEventsRingBuffer(3, DROP_NEWEST);
+
+        for (int i = 0; i < 7; i++) {
+            sut.add(event("message " + i));
+        }
+
+        assertThat(sut).extracting(LoggedEvent::getFormattedMessage).containsExactly("message 0", "message 1", "message 2");
+        assertThat(sut.getDroppedEvents()).isEqualTo(4);
+    }
+
+    @Test
+    void nothingIsDroppedBelowCapacity() {
+        CapturedEventsRingBuffer sut = new CapturedEventsRingBuffer(3, DROP_OLDEST);
+
+        sut.add(event("message"));
+
+        assertThat(sut).hasSize(1);
+        assertThat(sut.getDroppedEvents()).isZero();
+        assertThrows(IndexOutOfBoundsException.class, () -> sut.get(1));
+    }
+
+    @Test
+    void writersOneLapApartDoNotHideLaterEvents() throws InterruptedException {
+        CapturedEventsRingBuffer sut = new CapturedEventsRingBuffer(2, DROP_OLDEST);
+        int numberOfThreads = 4;
+        int eventsPerThread = 20_000;
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < numberOfThreads; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < eventsPerThread; i++) {
+                    sut.add(event("message " + i));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(sut).hasSize(2);
+        assertThat(sut.getDroppedEvents()).isEqualTo(numberOfThreads * eventsPerThread - 2L);
+    }
+
+    // a writer that waited for the one it replaces would never return here
+    @Test
+    @Timeout(value = 10, threadMode = SEPARATE_THREAD)
+    void writerOvertakenByLaterLapDiscardsItsEvent() {
+        CapturedEventsRingBuffer sut = new CapturedEventsRingBuffer(2, DROP_OLDEST);
+        long overtakenPosition = sut.claim();
+        long secondPosition = sut.claim();
+        long laterLapPosition = sut.claim();
+
+        sut.store(secondPosition, event("message 1"));
+        sut.store(laterLapPosition, event("message 2"));
+        sut.store(overtakenPosition, event("message 0"));
+
+        assertThat(sut).extracting(LoggedEvent::getFormattedMessage).containsExactly("message 1", "message 2");
+        assertThat(sut.getDroppedEvents()).isEqualTo(1);
+    }
+
+    @Test
+    @Timeout(value = 10, threadMode = SEPARATE_THREAD)
+    void laterLapDoesNotWaitForWriterThatHasNotStoredYet() {
+        CapturedEventsRingBuffer sut = new CapturedEventsRingBuffer(1, DROP_OLDEST);
+        long stalledPosition = sut.claim();
+
+        sut.add(event("message 1"));
+        sut.add(event("message 2"));
+        boolean storedLate = sut.store(stalledPosition, event("message 0"));
+
+        assertThat(storedLate).isTrue();
+        assertThat(sut).extracting(LoggedEvent::getFormattedMessage).containsExactly("message 2");
+    }
+
+    @Test
+    void capacityMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new CapturedEventsRingBuffer(0, DROP_OLDEST));
+    }
+
+    private static LoggedEvent event(String message) {
+        return LoggedEvent.builder().formattedMessage(message).build();
+    }
+}
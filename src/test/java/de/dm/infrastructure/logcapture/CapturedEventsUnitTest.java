@@ -0,0 +1,73 @@
+package de.dm.infrastructure.logcapture;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CapturedEventsUnitTest {
+
+    CapturedEvents sut = new CapturedEvents();
+
+    @Test
+    void keepsInsertionOrderAcrossSegments() {
+        for (int i = 0; i < 5000; i++) {
+            sut.add(event("message " + i));
+        }
+
+        assertThat(sut).hasSize(5000);
+        for (int i = 0; i < 5000; i++) {
+            assertThat(sut.get(i).getFormattedMessage()).isEqualTo("message " + i);
+        }
+    }
+
+    @Test
+    void doesNotExposeUnpublishedPositions() {
+        sut.add(event("only message"));
+
+        assertThrows(IndexOutOfBoundsException.class, () -> sut.get(1));
+    }
+
+    @Test
+    void concurrentAppendsKeepEveryEventAndTheOrderOfEachThread() throws Exception {
+        int threads = 16;
+        int eventsPerThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            String threadName = "thread" + t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < eventsPerThread; i++) {
+                    sut.add(event(threadName + " " + i));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertThat(sut).hasSize(threads * eventsPerThread);
+        int[] nextExpected = new int[threads];
+        for (LoggedEvent loggedEvent : sut) {
+            String[] parts = loggedEvent.getFormattedMessage().split(" ");
+            int thread = Integer.parseInt(parts[0].substring("thread".length()));
+            assertThat(Integer.parseInt(parts[1])).isEqualTo(nextExpected[thread]++);
+        }
+    }
+
+    private static LoggedEvent event(String message) {
+        return LoggedEvent.builder().formattedMessage(message).build();
+    }
+}
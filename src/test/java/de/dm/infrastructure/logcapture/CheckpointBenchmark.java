@@ -0,0 +1,61 @@
+package de.dm.infrastructure.logcapture;
+
+import ch.qos.logback.classic.Level;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static de.dm.infrastructure.logcapture.LogExpectation.info;
+
+/**
+ * asserts the 100 messages of the last phase of a test after 1M messages of earlier phases, with and without a checkpoint
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class CheckpointBenchmark {
+    private static final int NUMBER_OF_EARLIER_EVENTS = 1_000_000;
+    private static final int NUMBER_OF_PHASE_EVENTS = 100;
+
+    @Param({"wholeCapture", "sinceCheckpoint"})
+    String scope;
+
+    private LogAsserter logAsserter;
+
+    @Setup
+    public void setUp() {
+        List<LoggedEvent> loggedEvents = new CapturedEvents();
+        CapturingAppender capturingAppender = new CapturingAppender(null, Set.of("com.example"), loggedEvents, false, false, false);
+        for (int i = 0; i < NUMBER_OF_EARLIER_EVENTS; i++) {
+            loggedEvents.add(LoggedEvent.builder().level(Level.INFO).formattedMessage("earlier phase step " + i).build());
+        }
+        long numberOfSkippedEvents = "sinceCheckpoint".equals(scope) ? capturingAppender.getNumberOfCapturedEvents() : 0;
+        for (int i = 0; i < NUMBER_OF_PHASE_EVENTS; i++) {
+            loggedEvents.add(LoggedEvent.builder().level(Level.INFO).formattedMessage("last phase step " + i).build());
+        }
+        logAsserter = new LogAsserter(capturingAppender, List.of(), numberOfSkippedEvents);
+    }
+
+    @Benchmark
+    public Object assertLastPhase() {
+        logAsserter.assertNotLogged(info("step [0-9]+ failed"));
+        return logAsserter.assertLoggedInOrder(
+                info("last phase step 0$"),
+                info("last phase step 99"));
+    }
+}
@@ -0,0 +1,79 @@
+package de.dm.infrastructure.logcapture;
+
+import ch.qos.logback.classic.Level;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static de.dm.infrastructure.logcapture.ExpectedException.exception;
+import static de.dm.infrastructure.logcapture.LogExpectation.error;
+
+/**
+ * matches the types of many logged exceptions and their causes, some of which are not on the classpath (like exceptions
+ * that have been deserialized from another service).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ExceptionMatchingBenchmark {
+    private static final String[] TYPES = {
+            "java.lang.IllegalStateException",
+            "java.io.UncheckedIOException",
+            "com.example.remote.OrderRejectedException",
+            "com.example.remote.PaymentDeclinedException"
+    };
+
+    @Param({"10000"})
+    int numberOfEvents;
+
+    private LogAsserter logAsserter;
+
+    @Setup
+    public void setUp() {
+        List<LoggedEvent> loggedEvents = new CapturedEvents();
+        CapturingAppender capturingAppender = new CapturingAppender(null, Set.of("com.example"), loggedEvents, false, false, false);
+        for (int i = 0; i < numberOfEvents; i++) {
+            LoggedEvent.LoggedException cause = LoggedEvent.LoggedException.builder()
+                    .type(TYPES[(i + 1) % TYPES.length])
+                    .message("cause " + i)
+                    .cause(Optional.empty())
+                    .build();
+            loggedEvents.add(LoggedEvent.builder()
+                    .level(Level.ERROR)
+                    .formattedMessage("order " + i + " failed")
+                    .mdcData(Map.of())
+                    .loggedException(Optional.of(LoggedEvent.LoggedException.builder()
+                            .type(TYPES[i % TYPES.length])
+                            .message("order " + i + " failed")
+                            .cause(Optional.of(cause))
+                            .build()))
+                    .build());
+        }
+        logAsserter = new LogAsserter(capturingAppender, List.of());
+    }
+
+    @Benchmark
+    public void matchExceptionTypes() {
+        logAsserter.assertNotLogged(error("failed", exception()
+                .expectedType(RuntimeException.class)
+                .expectedCause(exception().expectedType(IllegalArgumentException.class).build())
+                .build()));
+    }
+}
@@ -0,0 +1,59 @@
+package de.dm.infrastructure.logcapture;
+
+import ch.qos.logback.classic.Level;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static de.dm.infrastructure.logcapture.LogExpectation.any;
+
+/**
+ * asserts that none of 20 messages without an expected level has been logged, in a capture of 100k messages
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ExpectationBatchBenchmark {
+    private static final int NUMBER_OF_EVENTS = 100_000;
+    private static final int NUMBER_OF_EXPECTATIONS = 20;
+
+    private LogAsserter logAsserter;
+    private LogExpectation[] logExpectations;
+
+    @Setup
+    public void setUp() {
+        List<LoggedEvent> loggedEvents = new CapturedEvents();
+        CapturingAppender capturingAppender = new CapturingAppender(null, Set.of("com.example"), loggedEvents, false, false, false);
+        for (int i = 0; i < NUMBER_OF_EVENTS; i++) {
+            loggedEvents.add(LoggedEvent.builder()
+                    .level(i % 2 == 0 ? Level.DEBUG : Level.INFO)
+                    .formattedMessage("processing item " + i)
+                    .build());
+        }
+        logAsserter = new LogAsserter(capturingAppender, List.of());
+        logExpectations = new LogExpectation[NUMBER_OF_EXPECTATIONS];
+        for (int i = 0; i < NUMBER_OF_EXPECTATIONS; i++) {
+            logExpectations[i] = any("failed to process item " + i);
+        }
+    }
+
+    @Benchmark
+    public LogAsserter assertNotLogged() {
+        logAsserter.assertNotLogged(logExpectations);
+        return logAsserter;
+    }
+}
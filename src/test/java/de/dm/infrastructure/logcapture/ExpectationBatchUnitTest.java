@@ -0,0 +1,115 @@
+package de.dm.infrastructure.logcapture;
+
+import ch.qos.logback.classic.Level;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static de.dm.infrastructure.logcapture.ExpectedMdcEntry.mdc;
+import static de.dm.infrastructure.logcapture.LogExpectation.any;
+import static de.dm.infrastructure.logcapture.LogExpectation.info;
+import static de.dm.infrastructure.logcapture.LogExpectation.warn;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExpectationBatchUnitTest {
+
+    CapturedEvents loggedEvents = new CapturedEvents();
+    CapturingAppender capturingAppender = new CapturingAppender(null, Set.of("com.example"), loggedEvents, false, false, false);
+
+    @Test
+    void countsMatchesWithFirstAndLastPosition() {
+        add(Level.INFO, "hello 1");
+        add(Level.WARN, "hello 2");
+        add(Level.INFO, "hello 3");
+        add(Level.INFO, "bye");
+
+        ExpectationBatch sut = new ExpectationBatch(capturingAppender, 0, List.of(), info("hello"), any("hello"), warn("bye"));
+        sut.countMatches();
+
+        assertThat(sut.numberOfMatches).containsExactly(2, 3, 0);
+        assertThat(sut.firstMatch).containsExactly(0, 0, ExpectationBatch.NO_MATCH);
+        assertThat(sut.lastMatch).containsExactly(2, 2, ExpectationBatch.NO_MATCH);
+    }
+
+    @Test
+    void matchesInOrder() {
+        add(Level.INFO, "hello 1");
+        add(Level.INFO, "hello 2");
+        add(Level.INFO, "hello 3");
+
+        ExpectationBatch sut = new ExpectationBatch(capturingAppender, 0, List.of(), info("hello"), info("hello 1"), info("hello 3"));
+
+        assertThat(sut.matchInOrder()).isEqualTo(1);
+        assertThat(sut.firstMatch[0]).isZero();
+
+        ExpectationBatch sutInOrder = new ExpectationBatch(capturingAppender, 0, List.of(), info("hello"), info("hello"), info("hello 3"));
+
+        assertThat(sutInOrder.matchInOrder()).isEqualTo(3);
+        assertThat(sutInOrder.firstMatch).containsExactly(0, 1, 2);
+    }
+
+    @Test
+    void assignsFirstFreeMatches() {
+        add(Level.INFO, "hello 1");
+        add(Level.INFO, "hello 2");
+
+        ExpectationBatch sut = new ExpectationBatch(capturingAppender, 0, List.of(), info("hello"), info("hello"));
+        ExpectationBatch sutWithTakenMessage = new ExpectationBatch(capturingAppender, 0, List.of(), info("hello"), info("1"));
+
+        assertThat(sut.assignFirstFreeMatches()).isTrue();
+        assertThat(sut.firstMatch).containsExactly(0, 1);
+        assertThat(sutWithTakenMessage.assignFirstFreeMatches()).isFalse();
+        assertThat(sutWithTakenMessage.findAllMatches()).isDeepEqualTo(new int[][]{{0, 1}, {0}});
+    }
+
+    @Test
+    void appliesGlobalMatchers() {
+        loggedEvents.add(LoggedEvent.builder().level(Level.INFO).formattedMessage("hello").mdcData(Map.of("key", "value")).build());
+        loggedEvents.add(LoggedEvent.builder().level(Level.INFO).formattedMessage("hello").mdcData(Map.of()).build());
+
+        ExpectationBatch sut = new ExpectationBatch(capturingAppender, 0, List.of(mdc("key", "value")), info("hello"));
+        sut.countMatches();
+
+        assertThat(sut.numberOfMatches).containsExactly(1);
+    }
+
+    @Test
+    void matchesLargeBatchesWithRequiredTexts() {
+        for (int i = 0; i < 20; i++) {
+            add(Level.INFO, "order " + i + " shipped");
+        }
+        LogExpectation[] logExpectations = new LogExpectation[12];
+        for (int i = 0; i < 10; i++) {
+            logExpectations[i] = info("order " + i + " shipp(ed)?");
+        }
+        logExpectations[10] = info("order 1[0-9] shipped");
+        logExpectations[11] = info("order 2 delivered");
+
+        ExpectationBatch sut = new ExpectationBatch(capturingAppender, 0, List.of(), logExpectations);
+        sut.countMatches();
+
+        assertThat(sut.numberOfMatches).containsExactly(1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 10, 0);
+        assertThat(sut.firstMatch[10]).isEqualTo(10);
+    }
+
+    @Test
+    void countsMatchesInParallelChunksLikeSequentially() {
+        CapturingAppender parallelCapturingAppender = new CapturingAppender(null, Set.of("com.example"), loggedEvents, false, false, false, 1);
+        for (int i = 0; i < 40_000; i++) {
+            add(i % 1000 == 999 ? Level.WARN : Level.INFO, "event " + i);
+        }
+
+        ExpectationBatch sut = new ExpectationBatch(parallelCapturingAppender, 0, List.of(), info("event 1"), warn("event"), any("event 39999"), info("bye"));
+        sut.countMatches();
+
+        assertThat(sut.numberOfMatches).containsExactly(11_100, 40, 1, 0);
+        assertThat(sut.firstMatch).containsExactly(1, 999, 39_999, ExpectationBatch.NO_MATCH);
+        assertThat(sut.lastMatch).containsExactly(19_998, 39_999, 39_999, ExpectationBatch.NO_MATCH);
+    }
+
+    private void add(Level level, String message) {
+        loggedEvents.add(LoggedEvent.builder().level(level).formattedMessage(message).mdcData(Map.of()).build());
+    }
+}
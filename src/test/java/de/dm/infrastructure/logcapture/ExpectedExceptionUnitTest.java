@@ -0,0 +1,60 @@
+package de.dm.infrastructure.logcapture;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.UncheckedIOException;
+import java.util.Optional;
+
+import static de.dm.infrastructure.logcapture.ExpectedException.exception;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExpectedExceptionUnitTest {
+
+    @Test
+    void matchesSameLoggedTypesConsistently() {
+        ExpectedException expectedException = exception().expectedType(RuntimeException.class).build();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(expectedException.matches(eventWithException("java.lang.IllegalStateException", Optional.empty()))).isTrue();
+            assertThat(expectedException.matches(eventWithException("java.io.IOException", Optional.empty()))).isFalse();
+            assertThat(expectedException.matches(eventWithException("java.lang.RuntimeException", Optional.empty()))).isTrue();
+        }
+    }
+
+    @Test
+    void comparesNamesOfTypesThatCannotBeLoaded() {
+        ExpectedException expectedException = exception().expectedType(UncheckedIOException.class).build();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(expectedException.matches(eventWithException("com.example.NotOnClasspathException", Optional.empty()))).isFalse();
+            assertThat(expectedException.matches(eventWithException("java.io.UncheckedIOException", Optional.empty()))).isTrue();
+        }
+        assertThat(exception().expectedType(NotLoadable.class).build()
+                .matches(eventWithException(NotLoadable.class.getCanonicalName(), Optional.empty()))).isTrue();
+    }
+
+    @Test
+    void matchesTypesOfCauses() {
+        ExpectedException expectedException = exception()
+                .expectedType(IllegalStateException.class)
+                .expectedCause(exception().expectedType(IllegalArgumentException.class).build())
+                .build();
+        Optional<LoggedEvent.LoggedException> cause = Optional.of(loggedException("java.lang.NumberFormatException", Optional.empty()));
+
+        assertThat(expectedException.matches(eventWithException("java.lang.IllegalStateException", cause))).isTrue();
+        assertThat(expectedException.matches(eventWithException("java.lang.IllegalStateException", Optional.empty()))).isFalse();
+        assertThat(expectedException.matches(LoggedEvent.builder().loggedException(Optional.empty()).build())).isFalse();
+    }
+
+    private static LoggedEvent eventWithException(String type, Optional<LoggedEvent.LoggedException> cause) {
+        return LoggedEvent.builder().loggedException(Optional.of(loggedException(type, cause))).build();
+    }
+
+    private static LoggedEvent.LoggedException loggedException(String type, Optional<LoggedEvent.LoggedException> cause) {
+        return LoggedEvent.LoggedException.builder().type(type).message("failed").cause(cause).build();
+    }
+
+    // its canonical name differs from its binary name, so that Class.forName() cannot find it by the logged name
+    private static class NotLoadable extends RuntimeException {
+    }
+}
@@ -0,0 +1,62 @@
+package de.dm.infrastructure.logcapture;
+
+import ch.qos.logback.classic.Level;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static de.dm.infrastructure.logcapture.LogExpectation.warn;
+
+/**
+ * asserts a few WARN messages in a capture of 100k DEBUG messages, with the level index and with a linear scan over all
+ * captured events (as done for captures that drop the oldest events)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class LevelIndexBenchmark {
+    private static final int NUMBER_OF_EVENTS = 100_000;
+
+    @Param({"scan", "levelIndex"})
+    String lookup;
+
+    private LogAsserter logAsserter;
+
+    @Setup
+    public void setUp() {
+        List<LoggedEvent> loggedEvents = "levelIndex".equals(lookup)
+                ? new CapturedEvents()
+                : new CapturedEventsRingBuffer(NUMBER_OF_EVENTS, OverflowPolicy.DROP_OLDEST);
+        CapturingAppender capturingAppender = new CapturingAppender(null, Set.of("com.example"), loggedEvents, false, false, false);
+        for (int i = 0; i < NUMBER_OF_EVENTS; i++) {
+            boolean warning = i % 10_000 == 9_999;
+            loggedEvents.add(LoggedEvent.builder()
+                    .level(warning ? Level.WARN : Level.DEBUG)
+                    .formattedMessage(warning ? "order " + i + " delayed" : "processing item " + i)
+                    .build());
+        }
+        logAsserter = new LogAsserter(capturingAppender, List.of());
+    }
+
+    @Benchmark
+    public Object assertWarnings() {
+        return logAsserter.assertLoggedInOrder(
+                warn("order 49999 delayed"),
+                warn("order 99999 delayed"));
+    }
+}
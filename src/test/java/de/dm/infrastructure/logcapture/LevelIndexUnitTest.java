@@ -0,0 +1,57 @@
+package de.dm.infrastructure.logcapture;
+
+import ch.qos.logback.classic.Level;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LevelIndexUnitTest {
+
+    CapturedEvents loggedEvents = new CapturedEvents();
+    LevelIndex sut = new LevelIndex(loggedEvents);
+
+    @Test
+    void findsPositionsOfLevel() {
+        add(Level.DEBUG, Level.WARN, Level.DEBUG, Level.WARN, Level.INFO);
+
+        assertThat(positionsOf(sut.positions(Level.WARN))).containsExactly(1, 3);
+        assertThat(positionsOf(sut.positions(Level.INFO))).containsExactly(4);
+        assertThat(positionsOf(sut.positions(Level.ERROR))).isEmpty();
+    }
+
+    @Test
+    void indexesEventsCapturedAfterPreviousQuery() {
+        add(Level.WARN);
+        EventPositions positionsBefore = sut.positions(Level.WARN);
+        for (int i = 0; i < 100; i++) {
+            add(Level.WARN);
+        }
+
+        assertThat(positionsOf(positionsBefore)).containsExactly(0);
+        assertThat(sut.positions(Level.WARN).size()).isEqualTo(101);
+    }
+
+    @Test
+    void startsAtPosition() {
+        add(Level.WARN, Level.DEBUG, Level.WARN, Level.DEBUG, Level.WARN);
+
+        assertThat(positionsOf(sut.positions(Level.WARN).startingAt(1))).containsExactly(2, 4);
+        assertThat(positionsOf(sut.positions(Level.WARN).startingAt(2))).containsExactly(2, 4);
+        assertThat(positionsOf(sut.positions(Level.WARN).startingAt(5))).isEmpty();
+        assertThat(positionsOf(EventPositions.range(0, 5).startingAt(3))).containsExactly(3, 4);
+    }
+
+    private void add(Level... levels) {
+        for (Level level : levels) {
+            loggedEvents.add(LoggedEvent.builder().level(level).formattedMessage("message").build());
+        }
+    }
+
+    private static int[] positionsOf(EventPositions eventPositions) {
+        int[] positions = new int[eventPositions.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = eventPositions.get(i);
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,62 @@
+package de.dm.infrastructure.logcapture;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LiteralAutomatonUnitTest {
+
+    @Test
+    void findsAllLiteralsInOnePass() {
+        LiteralAutomaton sut = new LiteralAutomaton(List.of("he", "she", "his", "hers", "überweisung"));
+
+        assertThat(foundLiterals(sut, "ushers")).containsExactlyInAnyOrder(0, 1, 3);
+        assertThat(foundLiterals(sut, "eine Überweisung, keine überweisung")).containsExactly(4);
+        assertThat(foundLiterals(sut, "nothing to see")).isEmpty();
+    }
+
+    @Test
+    void findsOverlappingAndNestedLiteralsOnce() {
+        LiteralAutomaton sut = new LiteralAutomaton(List.of("order 1 ", "order 12 ", "12", "aaa"));
+
+        assertThat(foundLiterals(sut, "order 12 shipped, aaaa, 12")).containsExactlyInAnyOrder(1, 2, 3);
+    }
+
+    @Test
+    void requiredLiteralsOfRegexes() {
+        assertThat(requiredLiteral("order [0-9]+ has been processed")).isEqualTo(" has been processed");
+        assertThat(requiredLiteral("^order \\d+ processed$")).isEqualTo(" processed");
+        assertThat(requiredLiteral("colou?r changed")).isEqualTo("r changed");
+        assertThat(requiredLiteral("a(bcdefgh)?ij")).isEqualTo("ij");
+        assertThat(requiredLiteral("x{2}yz\\.json")).isEqualTo("yz.json");
+        assertThat(requiredLiteral("price: [$)]+ total")).isEqualTo("price: ");
+        assertThat(requiredLiteral("abcd+e")).isEqualTo("abcd");
+    }
+
+    @Test
+    void noRequiredLiteralWhenUnsure() {
+        assertThat(requiredLiteral("order processed|shipped")).isEmpty();
+        assertThat(requiredLiteral("(?i)order processed")).isEmpty();
+        assertThat(requiredLiteral("\\Qorder\\E processed")).isEmpty();
+        assertThat(requiredLiteral("\\x41bcdef")).isEmpty();
+        assertThat(RequiredLiteral.of(Pattern.compile("order processed.", Pattern.CASE_INSENSITIVE))).isEmpty();
+        assertThat(requiredLiteral(".*")).isEmpty();
+    }
+
+    private static List<Integer> foundLiterals(LiteralAutomaton sut, String text) {
+        int numberOfFoundLiterals = sut.findLiteralsIn(text);
+        List<Integer> foundLiterals = new ArrayList<>();
+        for (int i = 0; i < numberOfFoundLiterals; i++) {
+            foundLiterals.add(sut.foundLiteral(i));
+        }
+        return foundLiterals;
+    }
+
+    private static String requiredLiteral(String regex) {
+        return RequiredLiteral.of(Pattern.compile(regex, Pattern.DOTALL | Pattern.MULTILINE));
+    }
+}
@@ -0,0 +1,59 @@
+package de.dm.infrastructure.logcapture;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * compares searching a plain text expectation as a literal with searching it with the regex engine, for different message sizes
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LiteralMatchingBenchmark {
+    private static final String EXPECTED_TEXT = "order processed";
+
+    @Param({"100", "10000", "1000000"})
+    int messageSize;
+
+    @Param({"regex", "literal"})
+    String matching;
+
+    private TextPattern pattern;
+    private String matchingMessage;
+    private String otherMessage;
+
+    @Setup
+    public void setUp() {
+        pattern = "literal".equals(matching)
+                ? TextPattern.compile(EXPECTED_TEXT, Pattern.DOTALL + Pattern.MULTILINE)
+                : new TextPattern.Regex(Pattern.compile(EXPECTED_TEXT, Pattern.DOTALL + Pattern.MULTILINE));
+        String body = MessageMatchingBenchmark.createBody(messageSize);
+        matchingMessage = body + EXPECTED_TEXT + body;
+        otherMessage = body + body;
+    }
+
+    @Benchmark
+    public boolean matchingMessage() {
+        return pattern.isFoundIn(matchingMessage);
+    }
+
+    @Benchmark
+    public boolean otherMessage() {
+        return pattern.isFoundIn(otherMessage);
+    }
+}
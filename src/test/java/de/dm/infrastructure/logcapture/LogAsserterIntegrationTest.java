@@ -32,17 +32,17 @@ class LogAsserterIntegrationTest {
                 .mdcData(mdcContents)
                 .build();
 
-        Assertions.assertTrue(LogAsserter.isMatchedByAll(loggedEvent, expectedMdcEntries));
+        Assertions.assertTrue(LogAsserter.allMatch(loggedEvent, expectedMdcEntries.toArray(new LogEventMatcher[0])));
     }
 
     @Test
-    void nullEntriesShouldNotThrowNullPointerException() {
+    void noEntriesAreAlwaysMatched() {
         Map<String, String> mdcContents = new HashMap<>();
 
         LoggedEvent loggedEvent = LoggedEvent.builder()
                 .mdcData(mdcContents)
                 .build();
 
-        Assertions.assertTrue(LogAsserter.isMatchedByAll(loggedEvent, null));
+        Assertions.assertTrue(LogAsserter.allMatch(loggedEvent, new LogEventMatcher[0]));
     }
 }
@@ -0,0 +1,70 @@
+package de.dm.infrastructure.logcapture;
+
+import ch.qos.logback.classic.Level;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.event.KeyValuePair;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static de.dm.infrastructure.logcapture.ExpectedException.exception;
+import static de.dm.infrastructure.logcapture.ExpectedKeyValue.keyValue;
+import static de.dm.infrastructure.logcapture.LogExpectation.warn;
+
+/**
+ * looks for one failed order among many, with the expensive exception matcher declared before the cheap and selective
+ * key-value matcher. The order of declaration should not matter, since cheap matchers are evaluated first.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class MatcherOrderBenchmark {
+
+    @Param({"100000"})
+    int numberOfEvents;
+
+    private LogAsserter logAsserter;
+
+    @Setup
+    public void setUp() {
+        List<LoggedEvent> loggedEvents = new CapturedEvents();
+        CapturingAppender capturingAppender = new CapturingAppender(null, Set.of("com.example"), loggedEvents, false, false, false);
+        for (int i = 0; i < numberOfEvents; i++) {
+            loggedEvents.add(LoggedEvent.builder()
+                    .level(Level.WARN)
+                    .formattedMessage("order " + i + " failed")
+                    .mdcData(Map.of())
+                    .loggedException(Optional.of(LoggedEvent.LoggedException.builder()
+                            .type("java.lang.IllegalStateException")
+                            .message("order " + i + " could not be shipped")
+                            .cause(Optional.empty())
+                            .build()))
+                    .keyValuePairs(List.of(new KeyValuePair("orderId", i)))
+                    .build());
+        }
+        logAsserter = new LogAsserter(capturingAppender, List.of());
+    }
+
+    @Benchmark
+    public Object findFailedOrder() {
+        return logAsserter.assertLogged(warn("failed",
+                exception().expectedType(RuntimeException.class).expectedMessageRegex("could not be shipped").build(),
+                keyValue("orderId", numberOfEvents - 1)));
+    }
+}
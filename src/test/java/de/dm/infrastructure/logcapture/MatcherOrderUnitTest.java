@@ -0,0 +1,102 @@
+package de.dm.infrastructure.logcapture;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import static de.dm.infrastructure.logcapture.ExpectedException.exception;
+import static de.dm.infrastructure.logcapture.ExpectedLoggerName.logger;
+import static de.dm.infrastructure.logcapture.ExpectedMdcEntry.mdc;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MatcherOrderUnitTest {
+
+    @Test
+    void startsWithCheapestMatchers() {
+        LogEventMatcher exceptionMatcher = exception().expectedType(RuntimeException.class).build();
+        LogEventMatcher regexLogger = logger("com\\.example\\..*");
+        LogEventMatcher plainLogger = logger("example");
+        LogEventMatcher custom = new CountingMatcher(event -> true, MatchingCosts.UNKNOWN);
+        LogEventMatcher mdcEntry = mdc("key", "value");
+
+        MatcherOrder sut = new MatcherOrder(List.of(exceptionMatcher, regexLogger, custom, plainLogger, mdcEntry));
+
+        assertThat(sut.snapshot()).containsExactly(plainLogger, mdcEntry, regexLogger, custom, exceptionMatcher);
+    }
+
+    @Test
+    void movesMatcherThatRejectsMostEventsForward() {
+        CountingMatcher cheapButUnselective = new CountingMatcher(event -> true, 10);
+        CountingMatcher selective = new CountingMatcher(event -> event.getFormattedMessage().equals("wanted"), 20);
+        MatcherOrder sut = new MatcherOrder(List.of(selective, cheapButUnselective));
+
+        assertThat(sut.snapshot()).containsExactly(cheapButUnselective, selective);
+
+        LoggedEvent unwanted = event("unwanted");
+        for (int i = 0; i < 2000; i++) {
+            assertThat(sut.matches(unwanted)).isFalse();
+        }
+
+        assertThat(sut.snapshot()).containsExactly(selective, cheapButUnselective);
+        assertThat(selective.calls).isEqualTo(2000);
+        assertThat(cheapButUnselective.calls).isEqualTo(1023);
+        assertThat(sut.matches(event("wanted"))).isTrue();
+    }
+
+    @Test
+    void keepsOrderOfMatchersWithEqualCosts() {
+        LogEventMatcher first = new CountingMatcher(event -> true, 10);
+        LogEventMatcher second = new CountingMatcher(event -> true, 10);
+        LogEventMatcher third = new CountingMatcher(event -> true, 10);
+
+        MatcherOrder sut = new MatcherOrder(List.of(first, second, third));
+        for (int i = 0; i < 2000; i++) {
+            assertThat(sut.matches(event("anything"))).isTrue();
+        }
+
+        assertThat(sut.snapshot()).containsExactly(first, second, third);
+    }
+
+    private static LoggedEvent event(String message) {
+        return LoggedEvent.builder().formattedMessage(message).mdcData(Map.of()).build();
+    }
+
+    private static class CountingMatcher implements LogEventMatcher {
+        private final Predicate<LoggedEvent> predicate;
+        private final int cost;
+        private int calls = 0;
+
+        CountingMatcher(Predicate<LoggedEvent> predicate, int cost) {
+            this.predicate = predicate;
+            this.cost = cost;
+        }
+
+        @Override
+        public boolean matches(LoggedEvent loggedEvent) {
+            calls++;
+            return predicate.test(loggedEvent);
+        }
+
+        @Override
+        public String getNonMatchingErrorMessage(LoggedEvent loggedEvent) {
+            return "did not match";
+        }
+
+        @Override
+        public String getMatcherTypeDescription() {
+            return "counting matcher";
+        }
+
+        @Override
+        public String getMatcherDetailDescription() {
+            return "counting matcher";
+        }
+
+        @Override
+        public int getMatchingCost() {
+            return cost;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package de.dm.infrastructure.logcapture;
+
+import ch.qos.logback.classic.Level;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.MarkerFactory;
+import org.slf4j.event.KeyValuePair;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static de.dm.infrastructure.logcapture.ExpectedKeyValue.keyValue;
+import static de.dm.infrastructure.logcapture.ExpectedMarker.marker;
+import static de.dm.infrastructure.logcapture.ExpectedMdcEntry.mdc;
+import static de.dm.infrastructure.logcapture.LogExpectation.info;
+
+/**
+ * scans all captured events with level, regex, marker, MDC and key-value matchers. Run with {@code -prof gc}: the allocated
+ * bytes per operation (gc.alloc.rate.norm) must not grow with the number of events, so that matching allocates nothing per
+ * scanned event.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class MatchingAllocationBenchmark {
+
+    @Param({"10000", "100000"})
+    int numberOfEvents;
+
+    private LogAsserter logAsserter;
+
+    @Setup
+    public void setUp() {
+        List<LoggedEvent> loggedEvents = new CapturedEvents();
+        CapturingAppender capturingAppender = new CapturingAppender(null, Set.of("com.example"), loggedEvents, false, false, false);
+        for (int i = 0; i < numberOfEvents; i++) {
+            loggedEvents.add(LoggedEvent.builder()
+                    .level(Level.INFO)
+                    .formattedMessage("order " + i + " processed")
+                    .mdcData(Map.of("traceId", "trace-" + i % 100))
+                    .markers(List.of(MarkerFactory.getDetachedMarker("audit")))
+                    .keyValuePairs(List.of(new KeyValuePair("orderId", i)))
+                    .build());
+        }
+        logAsserter = new LogAsserter(capturingAppender, List.of());
+    }
+
+    @Benchmark
+    public Object scanAllEvents() {
+        logAsserter.assertNotLogged(info("order [0-9]+ processed", marker("audit"), mdc("traceId", "trace-[0-9]+"), keyValue("orderId", -1L)));
+        return logAsserter.assertLogged(info("order [0-9]+ processed", marker("audit"), keyValue("orderId", numberOfEvents - 1L)));
+    }
+}
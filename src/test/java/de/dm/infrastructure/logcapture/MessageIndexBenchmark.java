@@ -0,0 +1,60 @@
+package de.dm.infrastructure.logcapture;
+
+import ch.qos.logback.classic.Level;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static de.dm.infrastructure.logcapture.LogExpectation.info;
+import static de.dm.infrastructure.logcapture.LogExpectation.warn;
+
+/**
+ * asserts a rare message by regex and the absence of another one in a capture of 100k INFO messages, with and without the
+ * message index
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class MessageIndexBenchmark {
+    private static final int NUMBER_OF_EVENTS = 100_000;
+
+    @Param({"scan", "messageIndex"})
+    String lookup;
+
+    private LogAsserter logAsserter;
+
+    @Setup
+    public void setUp() {
+        List<LoggedEvent> loggedEvents = new CapturedEvents();
+        CapturingAppender capturingAppender = new CapturingAppender(null, Set.of("com.example"), loggedEvents, false, false,
+                "messageIndex".equals(lookup));
+        for (int i = 0; i < NUMBER_OF_EVENTS; i++) {
+            loggedEvents.add(LoggedEvent.builder()
+                    .level(i == 74_211 ? Level.WARN : Level.INFO)
+                    .formattedMessage(i == 74_211 ? "order 4711 has been refunded" : "processing order " + i + " for customer " + i % 1000)
+                    .build());
+        }
+        logAsserter = new LogAsserter(capturingAppender, List.of());
+    }
+
+    @Benchmark
+    public Object assertRareMessage() {
+        logAsserter.assertNotLogged(info("payment [0-9]+ has failed"));
+        return logAsserter.assertLogged(warn("order [0-9]+ has been refunded"));
+    }
+}
@@ -0,0 +1,90 @@
+package de.dm.infrastructure.logcapture;
+
+import ch.qos.logback.classic.Level;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MessageIndexUnitTest {
+
+    CapturedEvents loggedEvents = new CapturedEvents();
+    MessageIndex sut = new MessageIndex(loggedEvents);
+
+    @Test
+    void onlyFindsBlocksThatMayContainTheText() {
+        for (int i = 0; i < 200; i++) {
+            add(i == 130 ? "order 42 shipped" : "processing step " + i);
+        }
+
+        assertThat(positionsOf(sut.candidatePositions("order 42 shipped"))).containsExactly(IntStream.range(128, 192).toArray());
+        assertThat(positionsOf(sut.candidatePositions("payment received"))).isEmpty();
+    }
+
+    @Test
+    void neverMissesAnEventThatContainsTheText() {
+        for (int i = 0; i < 1000; i++) {
+            add("event " + i + " of customer " + i % 37);
+        }
+
+        for (int i = 0; i < 1000; i += 17) {
+            assertThat(positionsOf(sut.candidatePositions("event " + i + " of customer " + i % 37))).contains(i);
+        }
+    }
+
+    @Test
+    void looksAtBlocksWithLongMessagesWithoutFilteringThem() {
+        for (int i = 0; i < 192; i++) {
+            add(i == 70 ? longMessage(3_000, 1) : "processing step " + i);
+        }
+        for (int i = 0; i < 64; i++) {
+            add(longMessage(100, i));
+        }
+
+        assertThat(positionsOf(sut.candidatePositions("payment received"))).containsExactly(
+                IntStream.concat(IntStream.range(64, 128), IntStream.range(192, 256)).toArray());
+        assertThat(positionsOf(sut.candidatePositions("processing step 3"))).contains(3).doesNotContain(128);
+    }
+
+    @Test
+    void indexesEventsCapturedAfterPreviousQueries() {
+        add("hello world");
+        assertThat(positionsOf(sut.candidatePositions("goodbye"))).isEmpty();
+
+        add("goodbye world");
+
+        assertThat(positionsOf(sut.candidatePositions("goodbye"))).containsExactly(0, 1);
+    }
+
+    @Test
+    void doesNotNarrowDownTextsShorterThanATrigram() {
+        add("hello world");
+
+        assertThat(sut.candidatePositions("he")).isNull();
+        assertThat(sut.candidatePositions("")).isNull();
+    }
+
+    // random characters, so that long messages have many different trigrams
+    private static String longMessage(int length, int seed) {
+        Random random = new Random(seed);
+        StringBuilder message = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            message.append((char) ('A' + random.nextInt(2000)));
+        }
+        return message.toString();
+    }
+
+    private void add(String message) {
+        loggedEvents.add(LoggedEvent.builder().level(Level.INFO).formattedMessage(message).build());
+    }
+
+    private static int[] positionsOf(EventPositions eventPositions) {
+        int[] positions = new int[eventPositions.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = eventPositions.get(i);
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,71 @@
+package de.dm.infrastructure.logcapture;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * compares matching an expectation's regex against large messages (like logged request and response bodies) with find()
+ * to the former full match of the regex padded with .* on both sides
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageMatchingBenchmark {
+    private static final String REGEX = "order \\d+ processed";
+    private static final int FLAGS = Pattern.DOTALL + Pattern.MULTILINE;
+
+    @Param({"1000", "1000000"})
+    int messageSize;
+
+    @Param({"padded", "find"})
+    String matching;
+
+    private Pattern pattern;
+    private String matchingMessage;
+    private String otherMessage;
+
+    @Setup
+    public void setUp() {
+        pattern = "padded".equals(matching) ? Pattern.compile(".*" + REGEX + ".*", FLAGS) : Pattern.compile(REGEX, FLAGS);
+        String body = createBody(messageSize);
+        matchingMessage = body + "order 42 processed" + body;
+        otherMessage = body + body;
+    }
+
+    @Benchmark
+    public boolean matchingMessage() {
+        return matches(matchingMessage);
+    }
+
+    @Benchmark
+    public boolean otherMessage() {
+        return matches(otherMessage);
+    }
+
+    private boolean matches(String message) {
+        return "padded".equals(matching) ? pattern.matcher(message).matches() : pattern.matcher(message).find();
+    }
+
+    static String createBody(int size) {
+        StringBuilder body = new StringBuilder(size);
+        while (body.length() < size / 2) {
+            body.append("{\"orderId\": 4711, \"status\": \"ordered\", \"items\": [1, 2, 3]}\n");
+        }
+        return body.toString();
+    }
+}
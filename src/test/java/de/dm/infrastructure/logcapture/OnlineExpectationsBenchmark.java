@@ -0,0 +1,66 @@
+package de.dm.infrastructure.logcapture;
+
+import ch.qos.logback.classic.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+import static de.dm.infrastructure.logcapture.LogExpectation.error;
+import static de.dm.infrastructure.logcapture.LogExpectation.warn;
+import static org.slf4j.Logger.ROOT_LOGGER_NAME;
+
+/**
+ * measures what checking expectNever() expectations while logging adds to capturing a log message, and what skipping
+ * the buffer with withoutBuffering() saves. Captures are bounded, since an unbounded capture would fill the heap during
+ * the benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class OnlineExpectationsBenchmark {
+
+    @Param({"none", "expectNever", "expectNeverWithoutBuffering"})
+    String expectations;
+
+    private final org.slf4j.Logger capturedLogger = LoggerFactory.getLogger("com.example.shop.order.OrderService");
+    private LogCapture logCapture;
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(ROOT_LOGGER_NAME)).detachAndStopAllAppenders();
+        logCapture = LogCapture.forPackages("com.example.shop").withCapacity(10_000, OverflowPolicy.DROP_OLDEST);
+        if ("expectNeverWithoutBuffering".equals(expectations)) {
+            logCapture.withoutBuffering();
+        }
+        logCapture.addAppenderAndSetLogLevelToTrace();
+        if (!"none".equals(expectations)) {
+            logCapture.expectNever(error(), warn("retrying order [0-9]+"));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        logCapture.assertExpectationsMet();
+        logCapture.removeAppenderAndResetLogLevel();
+    }
+
+    @Benchmark
+    public void logCapturedMessage() {
+        capturedLogger.info("order {} processed", 42);
+    }
+}
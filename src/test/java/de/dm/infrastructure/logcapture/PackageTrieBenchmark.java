@@ -0,0 +1,74 @@
+package de.dm.infrastructure.logcapture;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * compares deciding whether a logger is captured with {@link PackageTrie} to the former loop over all captured packages,
+ * for a modular monolith with many captured packages and a mix of captured and framework loggers
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PackageTrieBenchmark {
+
+    @Param({"60"})
+    int numberOfPackages;
+
+    @Param({"linear", "trie"})
+    String strategy;
+
+    private Set<String> capturedPackages;
+    private PackageTrie packageTrie;
+    private String[] loggerNames;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        capturedPackages = new HashSet<>();
+        for (int i = 0; i < numberOfPackages; i++) {
+            capturedPackages.add("com.example.shop.module" + i);
+        }
+        packageTrie = new PackageTrie(capturedPackages);
+        loggerNames = new String[]{
+                "com.example.shop.module7.order.OrderService",
+                "com.example.shop.module42.payment.internal.PaymentGateway",
+                "org.springframework.web.servlet.DispatcherServlet",
+                "org.hibernate.SQL",
+                "io.netty.channel.nio.NioEventLoop",
+                "com.zaxxer.hikari.pool.HikariPool",
+                "com.example.shop.module59.Api",
+                "org.apache.kafka.clients.consumer.internals.ConsumerCoordinator",
+        };
+    }
+
+    @Benchmark
+    public boolean isCaptured() {
+        String loggerName = loggerNames[next++ & 7];
+        if ("trie".equals(strategy)) {
+            return packageTrie.covers(loggerName);
+        }
+        for (String packageName : capturedPackages) {
+            if (loggerName.startsWith(packageName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,62 @@
+package de.dm.infrastructure.logcapture;
+
+import ch.qos.logback.classic.Level;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PackageTrieUnitTest {
+
+    PackageTrie sut = new PackageTrie(Set.of("de.dm", "com.example.app", "com.example.app.sub"));
+
+    @Test
+    void coversPackageAndSubPackages() {
+        assertThat(sut.covers("de.dm")).isTrue();
+        assertThat(sut.covers("de.dm.foo.Bar")).isTrue();
+        assertThat(sut.covers("com.example.app.Service")).isTrue();
+        assertThat(sut.covers("com.example.app.sub.Service")).isTrue();
+    }
+
+    @Test
+    void respectsSegmentBoundaries() {
+        assertThat(sut.covers("de.dmx")).isFalse();
+        assertThat(sut.covers("de.dmx.Foo")).isFalse();
+        assertThat(sut.covers("de")).isFalse();
+        assertThat(sut.covers("com.example")).isFalse();
+        assertThat(sut.covers("com.example.application.Service")).isFalse();
+    }
+
+    @Test
+    void treatsInnerClassSeparatorLikeLogback() {
+        PackageTrie classTrie = new PackageTrie(Set.of("com.example.Outer"));
+
+        assertThat(classTrie.covers("com.example.Outer$Inner")).isTrue();
+        assertThat(classTrie.covers("com.example.OuterClass")).isFalse();
+    }
+
+    @Test
+    void decisionsDoNotChangeWhenCached() {
+        assertThat(sut.covers("de.dm.foo")).isTrue();
+        assertThat(sut.covers("de.dm.foo")).isTrue();
+        assertThat(sut.covers("org.other")).isFalse();
+        assertThat(sut.covers("org.other")).isFalse();
+    }
+
+    @Test
+    void emptyPackageCoversEverything() {
+        assertThat(new PackageTrie(Set.of("")).covers("any.Logger")).isTrue();
+    }
+
+    @Test
+    void capturesAtLevelOfMostSpecificPackage() {
+        PackageTrie levelTrie = new PackageTrie(Map.of("com.example", Level.DEBUG, "com.example.app.payload", Level.WARN));
+
+        assertThat(levelTrie.captureLevel("com.example.app.Service")).isEqualTo(Level.DEBUG);
+        assertThat(levelTrie.captureLevel("com.example.app.payload.Dumper")).isEqualTo(Level.WARN);
+        assertThat(levelTrie.captureLevel("org.other.Service")).isNull();
+        assertThat(sut.captureLevel("de.dm.foo.Bar")).isEqualTo(Level.TRACE);
+    }
+}
@@ -0,0 +1,59 @@
+package de.dm.infrastructure.logcapture;
+
+import ch.qos.logback.classic.Level;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static de.dm.infrastructure.logcapture.ExpectedTimes.times;
+import static de.dm.infrastructure.logcapture.LogExpectation.info;
+
+/**
+ * counts a message by regex and finds a late message in a capture of 2M INFO messages, sequentially and in parallel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ParallelMatchingBenchmark {
+    private static final int NUMBER_OF_EVENTS = 2_000_000;
+
+    @Param({"sequential", "parallel"})
+    String matching;
+
+    private LogAsserter logAsserter;
+
+    @Setup
+    public void setUp() {
+        List<LoggedEvent> loggedEvents = new CapturedEvents();
+        CapturingAppender capturingAppender = new CapturingAppender(null, Set.of("com.example"), loggedEvents, false, false, false,
+                "parallel".equals(matching) ? CapturingAppender.DEFAULT_PARALLEL_MATCHING_THRESHOLD : Integer.MAX_VALUE);
+        for (int i = 0; i < NUMBER_OF_EVENTS; i++) {
+            loggedEvents.add(LoggedEvent.builder()
+                    .level(Level.INFO)
+                    .formattedMessage("replayed request " + i + " with status " + (i % 100 == 0 ? 500 : 200))
+                    .build());
+        }
+        logAsserter = new LogAsserter(capturingAppender, List.of());
+    }
+
+    @Benchmark
+    public Object countAndFind() {
+        logAsserter.assertLogged(times(NUMBER_OF_EVENTS / 100), info("request [0-9]+ with status 5[0-9]{2}"));
+        return logAsserter.assertLogged(info("request 1999999 with"));
+    }
+}
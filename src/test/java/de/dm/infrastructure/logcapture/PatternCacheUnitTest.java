@@ -0,0 +1,34 @@
+package de.dm.infrastructure.logcapture;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PatternCacheUnitTest {
+
+    @Test
+    void sharesPatternsForSameRegexAndFlags() {
+        TextPattern pattern = PatternCache.pattern("hello \\d+", Pattern.DOTALL);
+
+        assertThat(PatternCache.pattern("hello \\d+", Pattern.DOTALL)).isSameAs(pattern);
+        assertThat(PatternCache.pattern("hello \\d+", 0)).isNotSameAs(pattern);
+    }
+
+    @Test
+    void findsRegexAnywhereAndRespectsAnchors() {
+        TextPattern pattern = PatternCache.pattern("hello \\w+", Pattern.DOTALL + Pattern.MULTILINE);
+        TextPattern anchoredPattern = PatternCache.pattern("^hello$", Pattern.DOTALL + Pattern.MULTILINE);
+
+        assertThat(pattern.isFoundIn("well,\nhello world")).isTrue();
+        assertThat(anchoredPattern.isFoundIn("well, hello world")).isFalse();
+        assertThat(anchoredPattern.isFoundIn("well,\nhello\nworld")).isTrue();
+    }
+
+    @Test
+    void expectationsWithSameRegexSharePattern() {
+        assertThat(LogExpectation.info("order \\d+ processed").messagePattern)
+                .isSameAs(LogExpectation.warn("order \\d+ processed").messagePattern);
+    }
+}
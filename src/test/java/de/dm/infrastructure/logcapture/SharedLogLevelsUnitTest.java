@@ -0,0 +1,50 @@
+package de.dm.infrastructure.logcapture;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SharedLogLevelsUnitTest {
+
+    LoggerContext loggerContext = new LoggerContext();
+
+    @Test
+    void restoresOriginalLevelWhenLastRequestIsReleased() {
+        loggerContext.getLogger("com.example").setLevel(Level.WARN);
+
+        SharedLogLevels.request(loggerContext, Map.of("com.example", Level.DEBUG));
+        SharedLogLevels.request(loggerContext, Map.of("com.example", Level.TRACE));
+        Level levelWhileBothRequested = loggerContext.getLogger("com.example").getLevel();
+        SharedLogLevels.release(loggerContext, Map.of("com.example", Level.TRACE));
+        Level levelWhileOneRequested = loggerContext.getLogger("com.example").getLevel();
+        SharedLogLevels.release(loggerContext, Map.of("com.example", Level.DEBUG));
+
+        assertThat(levelWhileBothRequested).isEqualTo(Level.TRACE);
+        assertThat(levelWhileOneRequested).isEqualTo(Level.DEBUG);
+        assertThat(loggerContext.getLogger("com.example").getLevel()).isEqualTo(Level.WARN);
+    }
+
+    @Test
+    void letsLoggerContextBeGarbageCollectedWhenLastRequestIsReleased() throws InterruptedException {
+        WeakReference<LoggerContext> requestingContext = requestOnce();
+
+        for (int i = 0; i < 50 && requestingContext.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertThat(requestingContext.get()).isNull();
+    }
+
+    private static WeakReference<LoggerContext> requestOnce() {
+        LoggerContext otherContext = new LoggerContext();
+        SharedLogLevels.request(otherContext, Map.of("com.example", Level.TRACE, "org.example", Level.TRACE));
+        SharedLogLevels.release(otherContext, Map.of("com.example", Level.TRACE, "org.example", Level.TRACE));
+        return new WeakReference<>(otherContext);
+    }
+}
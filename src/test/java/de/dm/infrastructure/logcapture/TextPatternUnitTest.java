@@ -0,0 +1,71 @@
+package de.dm.infrastructure.logcapture;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextPatternUnitTest {
+    private static final int FLAGS = Pattern.DOTALL + Pattern.MULTILINE;
+
+    @Test
+    void plainTextIsMatchedAsLiteral() {
+        TextPattern pattern = TextPattern.compile("order processed, id=42", FLAGS);
+
+        assertThat(pattern).isInstanceOf(TextPattern.Literal.class);
+        assertThat(pattern.isFoundIn("the order processed, id=42 successfully")).isTrue();
+        assertThat(pattern.isFoundIn("order processed, id=43")).isFalse();
+    }
+
+    @Test
+    void emptyTextIsFoundEverywhere() {
+        assertThat(TextPattern.compile("", FLAGS).isFoundIn("anything")).isTrue();
+    }
+
+    @Test
+    void regexMetacharactersNeedRegexEngine() {
+        for (String regex : new String[]{"a.b", "^a", "a$", "a|b", "a?", "a*", "a+", "(a)", "[a]", "a{2}", "\\d"}) {
+            assertThat(TextPattern.compile(regex, FLAGS)).as(regex).isInstanceOf(TextPattern.Regex.class);
+        }
+    }
+
+    @Test
+    void flagsThatChangeLiteralsNeedRegexEngine() {
+        TextPattern pattern = TextPattern.compile("hello", Pattern.CASE_INSENSITIVE);
+
+        assertThat(pattern).isInstanceOf(TextPattern.Regex.class);
+        assertThat(pattern.isFoundIn("HELLO")).isTrue();
+    }
+
+    @Test
+    void regexIsSearchedConcurrently() {
+        TextPattern pattern = TextPattern.compile("order [0-9]+ processed", FLAGS);
+
+        long matches = IntStream.range(0, 10_000).parallel()
+                .filter(i -> pattern.isFoundIn(i % 2 == 0 ? "order " + i + " processed" : "order " + i + " failed"))
+                .count();
+
+        assertThat(matches).isEqualTo(5_000);
+    }
+
+    @Test
+    void patternForScanSearchesEachTextOnItsOwn() {
+        TextPattern pattern = TextPattern.compile("order [0-9]+ processed", FLAGS);
+        TextPattern scanPattern = pattern.forScan();
+
+        assertThat(scanPattern).isNotSameAs(pattern);
+        assertThat(scanPattern.isFoundIn("order 1 processed")).isTrue();
+        assertThat(scanPattern.isFoundIn("order 2 failed")).isFalse();
+        assertThat(scanPattern.isFoundIn("then order 3 processed")).isTrue();
+        assertThat(pattern.isFoundIn("order 4 processed")).isTrue();
+    }
+
+    @Test
+    void literalNeedsNoPatternForScan() {
+        TextPattern pattern = TextPattern.compile("order processed", FLAGS);
+
+        assertThat(pattern.forScan()).isSameAs(pattern);
+    }
+}
@@ -0,0 +1,112 @@
+package de.dm.infrastructure.logcapture;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * captures one log message from each of 100k threads that are started for a single task, which is how code under test
+ * uses virtual threads. Virtual threads are created via reflection so that this compiles with Java 17, and the
+ * "virtual" variant fails if the running JVM does not support them.
+ * <p>
+ * Use {@link #main(String[])} to run the variants that the running JVM supports with the GC profiler, which reports the
+ * memory that is allocated per capture.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class VirtualThreadCaptureBenchmark {
+    private static final Logger CAPTURED_LOGGER = LoggerFactory.getLogger("com.example.shop.order.OrderService");
+
+    @Param({"platform", "virtual"})
+    String threads;
+
+    @Param({"100000"})
+    int numberOfThreads;
+
+    private LogCapture logCapture;
+
+    @Setup(Level.Trial)
+    public void detachConsoleAppender() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).detachAndStopAllAppenders();
+    }
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        logCapture = LogCapture.forPackages("com.example.shop");
+        logCapture.addAppenderAndSetLogLevelToTrace();
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        logCapture.removeAppenderAndResetLogLevel();
+    }
+
+    @Benchmark
+    public int captureFromThreads() throws InterruptedException {
+        ExecutorService executor = newThreadPerTaskExecutor("virtual".equals(threads));
+        for (int i = 0; i < numberOfThreads; i++) {
+            int orderNumber = i;
+            executor.execute(() -> CAPTURED_LOGGER.info("order {} processed", orderNumber));
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        return logCapture.capturingAppender.getLoggedEvents().size();
+    }
+
+    private static ExecutorService newThreadPerTaskExecutor(boolean virtual) {
+        if (!virtual) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("virtual threads need Java 21 or later", e);
+        }
+    }
+
+    private static boolean virtualThreadsAreSupported() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(VirtualThreadCaptureBenchmark.class.getSimpleName())
+                .param("threads", virtualThreadsAreSupported() ? new String[]{"platform", "virtual"} : new String[]{"platform"})
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}